@@ -0,0 +1,141 @@
+package frc.robot;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.XboxController;
+import edu.wpi.first.wpilibj.simulation.XboxControllerSim;
+import frc.robot.Constants.JoyUtilConstants;
+import frc.robot.Constants.OperatorConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <> benchmarks {@link JoyUtil} end to end using simulated controller input
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JoyUtilBenchmark {
+  /** <> the d-pad angle held down for the whole benchmark (-1 is not pressed) */
+  @Param({"-1", "45", "270"})
+  public int pov;
+
+  private XboxControllerSim sim;
+  private JoyUtil joyUtil;
+  private final StickVector leftVector = new StickVector();
+  private final StickVector rightVector = new StickVector();
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+
+    sim = new XboxControllerSim(OperatorConstants.kDriverControllerPort);
+    sim.setLeftX(0.45);
+    sim.setLeftY(-0.8);
+    sim.setRightX(0.05);
+    sim.setRightY(0.6);
+    sim.setLeftTriggerAxis(0.25);
+    sim.setRightTriggerAxis(0.5);
+    sim.setRawButton(XboxController.Button.kA.value, true);
+    sim.setPOV(pov);
+    sim.notifyNewData();
+
+    joyUtil = new JoyUtil(OperatorConstants.kDriverControllerPort, JoyUtilConstants.kDeadzone,
+      JoyUtilConstants.kRateLimitLeft, JoyUtilConstants.kRateLimitRight, JoyUtilConstants.exponent1,
+      JoyUtilConstants.exponent2, JoyUtilConstants.coeff1, JoyUtilConstants.coeff2,
+      JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier,
+      JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier);
+  }
+
+  /** <> one scheduler cycle: a fresh snapshot and all four processed axes */
+  @Benchmark
+  public void cycle(Blackhole blackhole) {
+    joyUtil.update();
+    blackhole.consume(joyUtil.getLeftX());
+    blackhole.consume(joyUtil.getLeftY());
+    blackhole.consume(joyUtil.getRightX());
+    blackhole.consume(joyUtil.getRightY());
+  }
+
+  /** <> a cycle in which every axis is read twice, the second read should be memoized */
+  @Benchmark
+  public void cycleRepeatedReads(Blackhole blackhole) {
+    joyUtil.update();
+    for (int i = 0; i < 2; i++) {
+      blackhole.consume(joyUtil.getLeftX());
+      blackhole.consume(joyUtil.getLeftY());
+      blackhole.consume(joyUtil.getRightX());
+      blackhole.consume(joyUtil.getRightY());
+    }
+  }
+
+  /** <> one scheduler cycle using the 2d stick vectors instead of separate axes */
+  @Benchmark
+  public void cycleStickVectors(Blackhole blackhole) {
+    joyUtil.update();
+    blackhole.consume(joyUtil.getLeftStickVector(leftVector));
+    blackhole.consume(joyUtil.getRightStickVector(rightVector));
+  }
+
+  @Benchmark
+  public void snapshot() {
+    joyUtil.update();
+  }
+
+  @Benchmark
+  public double composeJoystickFunctions() {
+    return joyUtil.getTuningProfile().composeLeftStick(0.45, 0.25, 0.5);
+  }
+
+  @Benchmark
+  public StickVector composeStickVector() {
+    joyUtil.getTuningProfile().composeLeftStickVector(0.45, -0.8, 0.25, 0.5, leftVector);
+    return leftVector;
+  }
+
+  @Benchmark
+  public void povAxes(Blackhole blackhole) {
+    blackhole.consume(joyUtil.getPOVXAxis());
+    blackhole.consume(joyUtil.getPOVYAxis());
+  }
+
+  @Benchmark
+  public boolean povNotPressed() {
+    return joyUtil.getPOVNotPressed();
+  }
+
+  @Benchmark
+  public void buttons(Blackhole blackhole) {
+    blackhole.consume(joyUtil.getAButton());
+    blackhole.consume(joyUtil.getBButton());
+    blackhole.consume(joyUtil.getLeftBumper());
+    blackhole.consume(joyUtil.getRightStick());
+  }
+
+  @Benchmark
+  public void buttonEdges(Blackhole blackhole) {
+    blackhole.consume(joyUtil.wasPressed(ButtonMask.kA | ButtonMask.kB));
+    blackhole.consume(joyUtil.wasReleased(ButtonMask.kLeftBumper));
+    blackhole.consume(joyUtil.isHeld(ButtonMask.kA));
+    blackhole.consume(joyUtil.hasChanged(ButtonMask.kStart | ButtonMask.kBack));
+  }
+
+  /** <> the legacy path where every getter reads fresh input */
+  @Benchmark
+  public void cycleWithoutSnapshots(Blackhole blackhole) {
+    joyUtil.setSnapshotMode(false);
+    blackhole.consume(joyUtil.getLeftX());
+    blackhole.consume(joyUtil.getLeftY());
+    blackhole.consume(joyUtil.getRightX());
+    blackhole.consume(joyUtil.getRightY());
+    joyUtil.setSnapshotMode(true);
+  }
+}
@@ -0,0 +1,84 @@
+package frc.robot;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.XboxControllerSim;
+import frc.robot.Constants.JoyUtilConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <> benchmarks a full cycle of several controllers, either each updating
+ * on its own or all of them going through a {@link JoyUtilManager}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JoyUtilManagerBenchmark {
+  @Param({"2", "3"})
+  public int controllerCount;
+
+  private JoyUtil[] separate;
+  private JoyUtilManager manager;
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+
+    separate = new JoyUtil[controllerCount];
+    JoyUtil[] managed = new JoyUtil[controllerCount];
+    for (int port = 0; port < controllerCount; port++) {
+      XboxControllerSim sim = new XboxControllerSim(port);
+      sim.setLeftX(0.45);
+      sim.setLeftY(-0.8);
+      sim.setRightX(0.3);
+      sim.setRightY(0.6);
+      sim.setLeftTriggerAxis(0.25);
+      sim.notifyNewData();
+
+      separate[port] = create(port);
+      managed[port] = create(port);
+    }
+
+    manager = new JoyUtilManager(managed);
+  }
+
+  private static JoyUtil create(int port) {
+    return new JoyUtil(port, JoyUtilConstants.kDeadzone, JoyUtilConstants.kRateLimitLeft,
+      JoyUtilConstants.kRateLimitRight, JoyUtilConstants.exponent1, JoyUtilConstants.exponent2,
+      JoyUtilConstants.coeff1, JoyUtilConstants.coeff2, JoyUtilConstants.leftTriggerSpeedMultiplier,
+      JoyUtilConstants.rightTriggerSpeedMultiplier, JoyUtilConstants.leftTriggerSpeedMultiplier,
+      JoyUtilConstants.rightTriggerSpeedMultiplier);
+  }
+
+  @Benchmark
+  public void separateControllers(Blackhole blackhole) {
+    for (JoyUtil joyUtil : separate) {
+      joyUtil.update();
+      blackhole.consume(joyUtil.getLeftX());
+      blackhole.consume(joyUtil.getLeftY());
+      blackhole.consume(joyUtil.getRightX());
+      blackhole.consume(joyUtil.getRightY());
+    }
+  }
+
+  @Benchmark
+  public void managedControllers(Blackhole blackhole) {
+    manager.update();
+    for (int i = 0; i < manager.size(); i++) {
+      JoyUtil joyUtil = manager.get(i);
+      blackhole.consume(joyUtil.getLeftX());
+      blackhole.consume(joyUtil.getLeftY());
+      blackhole.consume(joyUtil.getRightX());
+      blackhole.consume(joyUtil.getRightY());
+    }
+  }
+}
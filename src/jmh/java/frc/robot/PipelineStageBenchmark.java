@@ -0,0 +1,127 @@
+package frc.robot;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.filter.SlewRateLimiter;
+import frc.robot.Constants.JoyUtilConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <> benchmarks each stage of the joystick pipeline on its own, without
+ * any controller input involved
+ *
+ * <p> inputs are walked through a table of stick positions so the JIT
+ * can't constant fold the math away </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PipelineStageBenchmark {
+  private static final int inputCount = 1024;
+  private final double[] inputs = new double[inputCount];
+  private final double[] triggers = new double[inputCount];
+  private int index;
+  private double time;
+
+  private CurveEngine curveEngine;
+  private SlewRateLimiter rateLimiter;
+  private AxisPipeline defaultPipeline;
+  private AxisPipeline fullPipeline;
+
+  private final SampleBuffer sampleBuffer = new SampleBuffer();
+  private final InputSnapshot sample = new InputSnapshot();
+  private final StickVector left = new StickVector();
+  private final StickVector right = new StickVector();
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+
+    // <> sweep the whole stick range (deadzone included) and the whole trigger range
+    for (int i = 0; i < inputCount; i++) {
+      inputs[i] = Math.sin(2 * Math.PI * i / inputCount);
+      triggers[i] = (double) i / (inputCount - 1);
+    }
+
+    curveEngine = new CurveEngine(JoyUtilConstants.kDeadzone, JoyUtilConstants.exponent1,
+      JoyUtilConstants.exponent2, JoyUtilConstants.coeff1, JoyUtilConstants.coeff2);
+    rateLimiter = new SlewRateLimiter(JoyUtilConstants.kRateLimitLeft);
+    defaultPipeline = AxisPipeline.builder().rateLimit(JoyUtilConstants.kRateLimitLeft).build();
+    fullPipeline = AxisPipeline.builder().expo(0.3).inverted(true).lowPass(0.05).predict(0.05)
+      .rateLimit(JoyUtilConstants.kRateLimitLeft).build();
+  }
+
+  private int next() {
+    index = (index + 1) & (inputCount - 1);
+    return index;
+  }
+
+  @Benchmark
+  public double applyDeadzone() {
+    return JoyMath.applyDeadzone(inputs[next()], JoyUtilConstants.kDeadzone);
+  }
+
+  @Benchmark
+  public double remap() {
+    return JoyMath.remap(inputs[next()], JoyUtilConstants.kDeadzone, 1, 0, 1);
+  }
+
+  @Benchmark
+  public double applyCurve() {
+    return JoyMath.applyCurve(inputs[next()], JoyUtilConstants.exponent1, JoyUtilConstants.exponent2,
+      JoyUtilConstants.coeff1, JoyUtilConstants.coeff2);
+  }
+
+  @Benchmark
+  public double curveEngine() {
+    return curveEngine.apply(inputs[next()]);
+  }
+
+  @Benchmark
+  public double curveEngineReference() {
+    return curveEngine.reference(inputs[next()]);
+  }
+
+  @Benchmark
+  public double applyTriggerMultipliers() {
+    int i = next();
+    return JoyMath.applyTriggerMultipliers(inputs[i], triggers[i], triggers[inputCount - 1 - i],
+      JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier);
+  }
+
+  @Benchmark
+  public double rateLimiter() {
+    return rateLimiter.calculate(inputs[next()]);
+  }
+
+  /** <> curve, trigger multipliers, and rate limit, the same as JoyUtil's default */
+  @Benchmark
+  public double defaultPipeline() {
+    int i = next();
+    return defaultPipeline.calculate(inputs[i], triggers[i], triggers[inputCount - 1 - i], curveEngine,
+      JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier, time += 0.02);
+  }
+
+  /** <> every optional stage turned on */
+  @Benchmark
+  public double fullPipeline() {
+    int i = next();
+    return fullPipeline.calculate(inputs[i], triggers[i], triggers[inputCount - 1 - i], curveEngine,
+      JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier, time += 0.02);
+  }
+
+  /** <> publishing and then reading back one sample through the seqlock */
+  @Benchmark
+  public long sampleBuffer() {
+    sample.leftX = inputs[next()];
+    sampleBuffer.write(sample, left, right);
+    return sampleBuffer.read(sample, left, right);
+  }
+}
@@ -0,0 +1,395 @@
+package frc.robot;
+
+/**
+ * <> the processing chain for one joystick axis, fused into a single final
+ * class. stages always run in the same order, and any stage that hasn't
+ * been configured is skipped:
+ *
+ * <ol>
+ *   <li> deadzone and curve (from the {@link TuningProfile}) </li>
+ *   <li> expo </li>
+ *   <li> trigger multipliers (from the {@link TuningProfile}) </li>
+ *   <li> inversion </li>
+ *   <li> low-pass filter </li>
+ *   <li> prediction </li>
+ *   <li> rate limit </li>
+ * </ol>
+ *
+ * <p> Stages are fields and branches rather than a list of stage objects,
+ * so processing an axis never goes through an interface call or boxes a
+ * value, and the whole chain is small enough for the JIT to inline into
+ * the caller. A pipeline with only a rate limit behaves exactly like the
+ * original deadzone, curve, trigger multiplier, rate limit chain, which is
+ * what {@link JoyUtil} uses by default. </p>
+ *
+ * <p> Prediction is an alpha-beta filter that tracks the position and
+ * velocity of the axis from sample timestamps and extrapolates a set time
+ * ahead, to make up for HID and loop latency on quick reversals. It runs
+ * before the rate limit, so the rate limit still always holds. It also
+ * never overshoots past full throw (or past the current input, if trigger
+ * multipliers take that further). </p>
+ *
+ * <p> Each pipeline holds the filter and rate limit state of one axis.
+ * Pipelines are made by a {@link Builder}, which can build any number of
+ * pipelines with the same stages (usually one per axis of a stick). Time
+ * is passed in rather than read, same as {@link VectorRateLimiter}. </p>
+ *
+ * <p> The math of each stage is a static kernel that takes its state as
+ * arguments and returns the new state, so {@link JoyUtilManager} can run
+ * the exact same stages over state kept in its own primitive arrays. </p>
+ */
+public final class AxisPipeline {
+  private final double expo;
+  private final boolean inverted;
+  private final double lowPassTimeConstant;
+  private final double predictionLead, predictionAlpha, predictionBeta;
+  private final double rateLimit;
+
+  private double filtered, output;
+  private double estimate, velocity;
+  private boolean hasEstimate;
+  private boolean rateLimited;
+  private double previousTime = Double.NaN;
+
+  private AxisPipeline(Builder builder) {
+    this.expo = builder.expo;
+    this.inverted = builder.inverted;
+    this.lowPassTimeConstant = builder.lowPassTimeConstant;
+    this.predictionLead = builder.predictionLead;
+    this.predictionAlpha = builder.predictionAlpha;
+    this.predictionBeta = builder.predictionBeta;
+    this.rateLimit = builder.rateLimit;
+  }
+
+  /**
+   * <> starts a new pipeline with no optional stages and no rate limit
+   *
+   * @return the builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * <> runs a raw axis through every stage
+   *
+   * @param value                  the raw input from the joystick
+   * @param leftTrigger            the left trigger axis, from 0 to 1
+   * @param rightTrigger           the right trigger axis, from 0 to 1
+   * @param curveEngine            the deadzone and curve to apply
+   * @param leftTriggerMultiplier  the left trigger output multiplier for the axis
+   * @param rightTriggerMultiplier the right trigger output multiplier for the axis
+   * @param timestamp              the time the input was read in seconds
+   * @return the processed output
+   */
+  public double calculate(double value, double leftTrigger, double rightTrigger, CurveEngine curveEngine,
+                          double leftTriggerMultiplier, double rightTriggerMultiplier, double timestamp) {
+    double elapsedTime = elapsedTime(timestamp);
+    double shaped = shape(curveEngine.apply(value));
+    double scaled = scale(JoyMath.applyTriggerMultipliers(shaped, leftTrigger, rightTrigger,
+      leftTriggerMultiplier, rightTriggerMultiplier));
+
+    return limit(predict(filter(scaled, elapsedTime), elapsedTime), elapsedTime);
+  }
+
+  /**
+   * <> the same as {@link #calculate} but with every stage timed separately
+   *
+   * @param profiler the profiler to record into
+   * @return the processed output
+   */
+  public double calculate(double value, double leftTrigger, double rightTrigger, CurveEngine curveEngine,
+                          double leftTriggerMultiplier, double rightTriggerMultiplier, double timestamp,
+                          PipelineProfiler profiler) {
+    double elapsedTime = elapsedTime(timestamp);
+
+    long start = System.nanoTime();
+    double shaped = shape(curveEngine.apply(value));
+    long curved = System.nanoTime();
+    double scaled = scale(JoyMath.applyTriggerMultipliers(shaped, leftTrigger, rightTrigger,
+      leftTriggerMultiplier, rightTriggerMultiplier));
+    long multiplied = System.nanoTime();
+    double smoothed = predict(filter(scaled, elapsedTime), elapsedTime);
+    long filteredTime = System.nanoTime();
+    double limited = limit(smoothed, elapsedTime);
+    long limitedTime = System.nanoTime();
+
+    profiler.record(PipelineProfiler.kCurve, curved - start);
+    profiler.record(PipelineProfiler.kTriggerMultipliers, multiplied - curved);
+    profiler.record(PipelineProfiler.kFilter, filteredTime - multiplied);
+    profiler.record(PipelineProfiler.kRateLimit, limitedTime - filteredTime);
+
+    return limited;
+  }
+
+  /**
+   * <> jumps the filter, prediction, and rate limit straight to a value
+   *
+   * @param value the value to reset to
+   */
+  public void reset(double value) {
+    filtered = value;
+    output = value;
+    estimate = value;
+    velocity = 0;
+    hasEstimate = true;
+    rateLimited = false;
+    previousTime = Double.NaN;
+  }
+
+  /**
+   * <> gets the most recent output without calculating a new one
+   *
+   * @return the last output
+   */
+  public double getOutput() {
+    return output;
+  }
+
+  /**
+   * <> whether the rate limit held back the most recent output
+   *
+   * @return true if the output would have moved further without the rate limit
+   */
+  public boolean isRateLimited() {
+    return rateLimited;
+  }
+
+  private double elapsedTime(double timestamp) {
+    // <> the first call has no time to compare against, so nothing moves. time
+    // going backwards is treated the same, since a negative rate limit step
+    // would throw the output the wrong way instead of holding it back
+    double elapsedTime = Double.isNaN(previousTime) ? 0 : Math.max(timestamp - previousTime, 0);
+    previousTime = timestamp;
+    return elapsedTime;
+  }
+
+  private double shape(double value) {
+    return shape(value, expo);
+  }
+
+  private double scale(double value) {
+    return scale(value, inverted);
+  }
+
+  private double filter(double value, double elapsedTime) {
+    if (lowPassTimeConstant == 0) {
+      return value;
+    }
+
+    filtered = lowPass(value, filtered, lowPassTimeConstant, elapsedTime);
+    return filtered;
+  }
+
+  private double predict(double value, double elapsedTime) {
+    if (predictionLead == 0) {
+      return value;
+    }
+
+    if (!hasEstimate) {
+      estimate = value;
+      velocity = 0;
+      hasEstimate = true;
+    } else if (elapsedTime > 0) {
+      double newVelocity = predictVelocity(value, estimate, velocity, predictionBeta, elapsedTime);
+      estimate = predictEstimate(value, estimate, velocity, predictionAlpha, elapsedTime);
+      velocity = newVelocity;
+    }
+
+    return extrapolate(value, estimate, velocity, predictionLead);
+  }
+
+  private double limit(double value, double elapsedTime) {
+    rateLimited = isLimited(value, output, rateLimit, elapsedTime);
+    output = limit(value, output, rateLimit, elapsedTime);
+    return output;
+  }
+
+  /** <> expo blends between linear and cubic, keeping -1, 0, and 1 in place */
+  static double shape(double value, double expo) {
+    return expo == 0 ? value : expo * value * value * value + (1 - expo) * value;
+  }
+
+  static double scale(double value, boolean inverted) {
+    return inverted ? -value : value;
+  }
+
+  /** <> single pole low-pass, scaled by how much time actually passed. returns the new filter state */
+  static double lowPass(double value, double filtered, double timeConstant, double elapsedTime) {
+    return filtered + (value - filtered) * elapsedTime / (timeConstant + elapsedTime);
+  }
+
+  /** <> alpha-beta update of the position: the extrapolated position corrected by part of the miss */
+  static double predictEstimate(double value, double estimate, double velocity, double alpha, double elapsedTime) {
+    double extrapolated = estimate + velocity * elapsedTime;
+    return extrapolated + alpha * (value - extrapolated);
+  }
+
+  /** <> alpha-beta update of the velocity, from the same miss as {@link #predictEstimate} */
+  static double predictVelocity(double value, double estimate, double velocity, double beta, double elapsedTime) {
+    double residual = value - (estimate + velocity * elapsedTime);
+    return velocity + beta * residual / elapsedTime;
+  }
+
+  /** <> the prediction a lead time ahead, never past full throw (or the input, if that's further) */
+  static double extrapolate(double value, double estimate, double velocity, double lead) {
+    double bound = Math.max(1, Math.abs(value));
+    return Math.max(-bound, Math.min(estimate + velocity * lead, bound));
+  }
+
+  /** <> same as SlewRateLimiter. returns the new output */
+  static double limit(double value, double output, double rateLimit, double elapsedTime) {
+    if (rateLimit == Double.POSITIVE_INFINITY) {
+      return value;
+    }
+
+    double maxChange = rateLimit * elapsedTime;
+    return output + Math.max(-maxChange, Math.min(value - output, maxChange));
+  }
+
+  static boolean isLimited(double value, double output, double rateLimit, double elapsedTime) {
+    return rateLimit != Double.POSITIVE_INFINITY && Math.abs(value - output) > rateLimit * elapsedTime;
+  }
+
+  // <> stage configuration and state, for JoyUtilManager to take over
+
+  double getExpo() {
+    return expo;
+  }
+
+  boolean isInverted() {
+    return inverted;
+  }
+
+  double getLowPassTimeConstant() {
+    return lowPassTimeConstant;
+  }
+
+  double getPredictionLead() {
+    return predictionLead;
+  }
+
+  double getPredictionAlpha() {
+    return predictionAlpha;
+  }
+
+  double getPredictionBeta() {
+    return predictionBeta;
+  }
+
+  double getRateLimit() {
+    return rateLimit;
+  }
+
+  double getFiltered() {
+    return filtered;
+  }
+
+  double getEstimate() {
+    return estimate;
+  }
+
+  double getVelocity() {
+    return velocity;
+  }
+
+  boolean hasEstimate() {
+    return hasEstimate;
+  }
+
+  /**
+   * <> configures the stages of an {@link AxisPipeline}. every stage starts off
+   */
+  public static final class Builder {
+    private double expo;
+    private boolean inverted;
+    private double lowPassTimeConstant;
+    private double predictionLead, predictionAlpha, predictionBeta;
+    private double rateLimit = Double.POSITIVE_INFINITY;
+
+    private Builder() {}
+
+    /**
+     * <> adds an expo stage after the curve
+     *
+     * @param expo how cubic the response is, from 0 (linear) to 1 (fully cubic)
+     * @return this builder
+     */
+    public Builder expo(double expo) {
+      this.expo = expo;
+      return this;
+    }
+
+    /**
+     * <> flips the sign of the output
+     *
+     * @param inverted whether to invert the axis
+     * @return this builder
+     */
+    public Builder inverted(boolean inverted) {
+      this.inverted = inverted;
+      return this;
+    }
+
+    /**
+     * <> adds a low-pass filter before the rate limit
+     *
+     * @param timeConstant the filter's time constant in seconds (0 turns the filter off)
+     * @return this builder
+     */
+    public Builder lowPass(double timeConstant) {
+      this.lowPassTimeConstant = timeConstant;
+      return this;
+    }
+
+    /**
+     * <> adds prediction before the rate limit, with an alpha of 0.8 and a
+     * beta picked to go with it (beta = alpha^2 / (2 - alpha))
+     *
+     * @param leadSeconds how far ahead to predict in seconds (0 turns prediction off)
+     * @return this builder
+     */
+    public Builder predict(double leadSeconds) {
+      return predict(leadSeconds, 0.8, 0.8 * 0.8 / (2 - 0.8));
+    }
+
+    /**
+     * <> adds prediction before the rate limit
+     *
+     * @param leadSeconds how far ahead to predict in seconds (0 turns prediction off)
+     * @param alpha       how much of each miss goes into the position, from 0 to 1
+     * @param beta        how much of each miss goes into the velocity, from 0 to 1
+     * @return this builder
+     */
+    public Builder predict(double leadSeconds, double alpha, double beta) {
+      this.predictionLead = leadSeconds;
+      this.predictionAlpha = alpha;
+      this.predictionBeta = beta;
+      return this;
+    }
+
+    /**
+     * <> limits how fast the output can change
+     *
+     * @param rateLimit the max output change that can occur in one second
+     * @return this builder
+     */
+    public Builder rateLimit(double rateLimit) {
+      this.rateLimit = rateLimit;
+      return this;
+    }
+
+    double getRateLimit() {
+      return rateLimit;
+    }
+
+    /**
+     * <> builds a new pipeline with its own state
+     *
+     * @return the pipeline
+     */
+    public AxisPipeline build() {
+      return new AxisPipeline(this);
+    }
+  }
+}
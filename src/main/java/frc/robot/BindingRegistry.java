@@ -0,0 +1,51 @@
+package frc.robot;
+
+import edu.wpi.first.wpilibj.event.EventLoop;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <> lazily created {@link Trigger}s for a {@link JoyUtil}'s buttons and
+ * d-pad that are only polled when the input mask changes
+ *
+ * <p> Every trigger is made the first time its mask is asked for and
+ * reused after that. They all live on the registry's own {@link EventLoop}
+ * instead of the scheduler's default button loop, and that loop is only
+ * polled when the input mask is different from last time. A mask check
+ * can only change when the mask does, so bindings made directly on these
+ * triggers (onTrue, whileTrue, and the rest) act the same as if they were
+ * polled every cycle, but a cycle where nothing changed costs one
+ * comparison no matter how many bindings there are (see
+ * {@link ChangeTrigger}). </p>
+ */
+final class BindingRegistry {
+  private final EventLoop loop = new EventLoop();
+  private final Map<Integer, Trigger> triggers = new HashMap<>();
+  private int inputMask;
+
+  /**
+   * <> gets the trigger for a mask, creating it if it doesn't exist yet
+   *
+   * @param mask the buttons and d-pad directions that all have to be down (see {@link ButtonMask})
+   * @return the trigger
+   */
+  Trigger get(int mask) {
+    return triggers.computeIfAbsent(mask, key -> new ChangeTrigger(loop, () -> (inputMask & mask) == mask));
+  }
+
+  /**
+   * <> polls every binding if the input has changed since the last dispatch
+   *
+   * @param inputMask the current input mask
+   */
+  void dispatch(int inputMask) {
+    if (inputMask == this.inputMask) {
+      return;
+    }
+
+    this.inputMask = inputMask;
+    loop.poll();
+  }
+}
@@ -0,0 +1,58 @@
+package frc.robot;
+
+import edu.wpi.first.wpilibj.XboxController;
+
+/**
+ * <> bit masks for the xbox controller buttons as they appear in the
+ * DriverStation button word (button n is bit n - 1). masks can be or'd
+ * together to query several buttons at once
+ *
+ * <p> d-pad directions get one bit each above the buttons, starting at
+ * {@link #kPOVShift}, so a button word and a d-pad direction can be packed
+ * into one input mask </p>
+ */
+public final class ButtonMask {
+  public static final int kA = of(XboxController.Button.kA);
+  public static final int kB = of(XboxController.Button.kB);
+  public static final int kX = of(XboxController.Button.kX);
+  public static final int kY = of(XboxController.Button.kY);
+  public static final int kLeftBumper = of(XboxController.Button.kLeftBumper);
+  public static final int kRightBumper = of(XboxController.Button.kRightBumper);
+  public static final int kBack = of(XboxController.Button.kBack);
+  public static final int kStart = of(XboxController.Button.kStart);
+  public static final int kLeftStick = of(XboxController.Button.kLeftStick);
+  public static final int kRightStick = of(XboxController.Button.kRightStick);
+
+  public static final int kPOVShift = 16;
+  public static final int kPOVUp = of(POVDirection.kUp);
+  public static final int kPOVUpRight = of(POVDirection.kUpRight);
+  public static final int kPOVRight = of(POVDirection.kRight);
+  public static final int kPOVDownRight = of(POVDirection.kDownRight);
+  public static final int kPOVDown = of(POVDirection.kDown);
+  public static final int kPOVDownLeft = of(POVDirection.kDownLeft);
+  public static final int kPOVLeft = of(POVDirection.kLeft);
+  public static final int kPOVUpLeft = of(POVDirection.kUpLeft);
+  public static final int kPOVAny = 0xFF << kPOVShift;
+
+  private ButtonMask() {}
+
+  /**
+   * <> gets the mask of a single button
+   *
+   * @param button the button
+   * @return the bit of the button in the button word
+   */
+  public static int of(XboxController.Button button) {
+    return 1 << (button.value - 1);
+  }
+
+  /**
+   * <> gets the mask of a d-pad direction
+   *
+   * @param direction the direction
+   * @return the bit of the direction in an input mask, or 0 for {@link POVDirection#kNone}
+   */
+  public static int of(POVDirection direction) {
+    return direction.isPressed() ? 1 << (kPOVShift + direction.ordinal()) : 0;
+  }
+}
@@ -0,0 +1,42 @@
+package frc.robot;
+
+/**
+ * <> a {@link JoyClock} that reads another clock once per robot loop
+ * and hands out that same time until the next loop
+ *
+ * <p> {@link #refresh()} has to be called from robotPeriodic before
+ * {@link JoyUtil#periodic()} (or {@link JoyUtilManager#update()}), so the
+ * snapshots of a loop get that loop's time. It's only meant for the main
+ * robot thread, not for background sampling. </p>
+ */
+public final class CachedClock implements JoyClock {
+  private final JoyClock source;
+  private double timestamp;
+
+  /**
+   * <> creates a new {@link CachedClock} that caches the real time
+   */
+  public CachedClock() {
+    this(JoyClock.kRealTime);
+  }
+
+  /**
+   * <> creates a new {@link CachedClock}
+   *
+   * @param source the clock to read once per cycle
+   */
+  public CachedClock(JoyClock source) {
+    this.source = source;
+    refresh();
+  }
+
+  /** <> reads the source clock again. call once per loop, before anything uses the clock */
+  public void refresh() {
+    timestamp = source.getTimestamp();
+  }
+
+  @Override
+  public double getTimestamp() {
+    return timestamp;
+  }
+}
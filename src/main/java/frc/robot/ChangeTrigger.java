@@ -0,0 +1,57 @@
+package frc.robot;
+
+import edu.wpi.first.math.filter.Debouncer;
+import edu.wpi.first.wpilibj.event.EventLoop;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * <> a {@link Trigger} on an {@link EventLoop} that's only polled when its
+ * condition can have changed (see {@link BindingRegistry} and
+ * {@link GestureDetector})
+ *
+ * <p> Anything built on top of one of these has a condition of its own
+ * that can change while the input doesn't: a debounce timer running out,
+ * or an axis crossing a threshold in an and/or. So debounce, and, or, and
+ * negate build their triggers on the scheduler's default button loop,
+ * which is polled every cycle, instead of on the change-driven loop. Only
+ * the bare mask or gesture check is skipped on quiet cycles. </p>
+ */
+final class ChangeTrigger extends Trigger {
+  /**
+   * <> creates a new {@link ChangeTrigger}
+   *
+   * @param loop      the change-driven loop to poll the trigger on
+   * @param condition the mask or gesture check
+   */
+  ChangeTrigger(EventLoop loop, BooleanSupplier condition) {
+    super(loop, condition);
+  }
+
+  private static EventLoop defaultLoop() {
+    return CommandScheduler.getInstance().getDefaultButtonLoop();
+  }
+
+  @Override
+  public Trigger and(BooleanSupplier trigger) {
+    return new Trigger(defaultLoop(), () -> getAsBoolean() && trigger.getAsBoolean());
+  }
+
+  @Override
+  public Trigger or(BooleanSupplier trigger) {
+    return new Trigger(defaultLoop(), () -> getAsBoolean() || trigger.getAsBoolean());
+  }
+
+  @Override
+  public Trigger negate() {
+    return new Trigger(defaultLoop(), () -> !getAsBoolean());
+  }
+
+  @Override
+  public Trigger debounce(double seconds, Debouncer.DebounceType type) {
+    Debouncer debouncer = new Debouncer(seconds, type);
+    return new Trigger(defaultLoop(), () -> debouncer.calculate(getAsBoolean()));
+  }
+}
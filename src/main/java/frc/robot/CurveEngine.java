@@ -0,0 +1,141 @@
+package frc.robot;
+
+/**
+ * <> deadzoning and curving compiled into a single lookup table step
+ *
+ * <p> When an engine is built, {@link JoyMath#applyDeadzone} followed by
+ * {@link JoyMath#applyCurve} is sampled at evenly spaced points outside of
+ * the deadzone, one table for each side of the stick. Applying the engine
+ * is then just a deadzone check and a linear interpolation between two
+ * table entries, so there's no {@link Math#pow} and no allocation on the
+ * hot path. </p>
+ *
+ * <p> Inputs are expected to be between -1 and 1 (which is all a controller
+ * will give). Anything past that is treated as if it were 1 or -1. How far
+ * the table can be from the reference math is given by
+ * {@link #measureMaxError(int)}. </p>
+ */
+public final class CurveEngine {
+  /** <> the number of table segments on each side of the stick used by default */
+  public static final int kDefaultResolution = 1024;
+
+  private final double deadzone;
+  private final double exponent1, exponent2, coefficient1, coefficient2;
+  private final int resolution;
+  private final double scale;
+  private final double[] positive, negative;
+
+  /**
+   * <> compiles a new {@link CurveEngine} with the default resolution
+   *
+   * @param deadzone     the size of the deadzone
+   * @param exponent1    the first exponent of the curve
+   * @param exponent2    the second exponent of the curve
+   * @param coefficient1 the coefficient applied to the first exponent
+   * @param coefficient2 the coefficient applied to the second exponent
+   */
+  public CurveEngine(double deadzone, double exponent1, double exponent2, double coefficient1,
+                     double coefficient2) {
+    this(deadzone, exponent1, exponent2, coefficient1, coefficient2, kDefaultResolution);
+  }
+
+  /**
+   * <> compiles a new {@link CurveEngine}
+   *
+   * @param deadzone     the size of the deadzone
+   * @param exponent1    the first exponent of the curve
+   * @param exponent2    the second exponent of the curve
+   * @param coefficient1 the coefficient applied to the first exponent
+   * @param coefficient2 the coefficient applied to the second exponent
+   * @param resolution   the number of table segments on each side of the stick
+   */
+  public CurveEngine(double deadzone, double exponent1, double exponent2, double coefficient1,
+                     double coefficient2, int resolution) {
+    if (resolution < 1) {
+      throw new IllegalArgumentException("Curve resolution must be at least 1");
+    }
+
+    this.deadzone = deadzone;
+    this.exponent1 = exponent1;
+    this.exponent2 = exponent2;
+    this.coefficient1 = coefficient1;
+    this.coefficient2 = coefficient2;
+    this.resolution = resolution;
+    this.scale = resolution / (1 - deadzone);
+
+    this.positive = new double[resolution + 1];
+    this.negative = new double[resolution + 1];
+
+    // <> the first entry of each table is the value just outside of the
+    // deadzone, since the deadzone edge itself is always 0
+    double step = (1 - deadzone) / resolution;
+    positive[0] = reference(Math.nextUp(deadzone));
+    negative[0] = reference(-Math.nextUp(deadzone));
+    for (int i = 1; i <= resolution; i++) {
+      positive[i] = reference(deadzone + step * i);
+      negative[i] = reference(-(deadzone + step * i));
+    }
+  }
+
+  /**
+   * <> deadzones and curves a value
+   *
+   * @param value the raw input
+   * @return the input with the deadzone and curve applied
+   */
+  public double apply(double value) {
+    if (value > deadzone) {
+      return interpolate(positive, value - deadzone);
+    } else if (value < -deadzone) {
+      return interpolate(negative, -value - deadzone);
+    } else {
+      return 0;
+    }
+  }
+
+  /**
+   * <> deadzones and curves a value using the original math instead of
+   * the table
+   *
+   * @param value the raw input
+   * @return the input with the deadzone and curve applied
+   */
+  public double reference(double value) {
+    double deadzoned = JoyMath.applyDeadzone(value, deadzone);
+    return JoyMath.applyCurve(deadzoned, exponent1, exponent2, coefficient1, coefficient2);
+  }
+
+  /**
+   * <> finds the largest difference between {@link #apply(double)} and
+   * {@link #reference(double)} over evenly spaced inputs from -1 to 1
+   *
+   * @param samples the number of inputs to check
+   * @return the largest absolute difference found
+   */
+  public double measureMaxError(int samples) {
+    double maxError = 0;
+    for (int i = 0; i < samples; i++) {
+      double value = -1 + 2.0 * i / Math.max(samples - 1, 1);
+      maxError = Math.max(maxError, Math.abs(apply(value) - reference(value)));
+    }
+
+    return maxError;
+  }
+
+  /**
+   * <> gets the size of the deadzone the engine was compiled with
+   *
+   * @return the deadzone
+   */
+  public double getDeadzone() {
+    return deadzone;
+  }
+
+  private double interpolate(double[] table, double offset) {
+    double position = Math.min(offset * scale, resolution);
+    int index = Math.min((int) position, resolution - 1);
+    double fraction = position - index;
+
+    return table[index] + (table[index + 1] - table[index]) * fraction;
+  }
+}
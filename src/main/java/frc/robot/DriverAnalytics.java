@@ -0,0 +1,156 @@
+package frc.robot;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * <> streaming statistics about how a driver actually uses the controller,
+ * for tuning the deadzone, curve, and trigger multipliers. turned on with
+ * {@link JoyUtil#setAnalytics(DriverAnalytics)}
+ *
+ * <p> Everything is kept in fixed bins allocated up front, so a whole
+ * match (or a whole day of practice) takes the same memory, and an update
+ * is a few array increments. Bins are weighted by time rather than by
+ * cycle, so loop overruns don't skew anything, and only time spent in
+ * teleop is counted, since the sticks sit untouched through autonomous
+ * and would pile up in the deadzone. </p>
+ *
+ * <p> Tracked per stick: a histogram of raw and of processed magnitude,
+ * time spent inside the deadzone, and time the rate limit was holding
+ * the output back. Tracked per trigger: a histogram of how far it's
+ * pulled. {@link #dump(Path)} writes it all out as csv, which is meant to
+ * be done once when teleop ends. </p>
+ */
+public final class DriverAnalytics {
+  private static final double magnitudeBinWidth = 0.05;
+  private static final int magnitudeBins = 40;
+  private static final double triggerBinWidth = 0.05;
+  private static final int triggerBins = 20;
+  private static final int left = 0, right = 1;
+
+  private final double[][] rawMagnitudeSeconds = new double[2][magnitudeBins];
+  private final double[][] processedMagnitudeSeconds = new double[2][magnitudeBins];
+  private final double[][] triggerSeconds = new double[2][triggerBins];
+  private final double[] deadzoneSeconds = new double[2];
+  private final double[] rateLimitedSeconds = new double[2];
+  private double totalSeconds;
+  private double previousTimestamp = Double.NaN;
+
+  /**
+   * <> adds one cycle of input. called by {@link JoyUtil#periodic()} once per loop
+   *
+   * @param raw          the raw input of the cycle
+   * @param leftX        the processed left x
+   * @param leftY        the processed left y
+   * @param rightX       the processed right x
+   * @param rightY       the processed right y
+   * @param leftLimited  if the rate limit held back either left stick axis
+   * @param rightLimited if the rate limit held back either right stick axis
+   * @param deadzone     the deadzone in use
+   */
+  void update(InputSnapshot raw, double leftX, double leftY, double rightX, double rightY, boolean leftLimited,
+              boolean rightLimited, double deadzone) {
+    // <> time outside of teleop says nothing about the driver, and restarts the clock
+    if (!DriverStation.isTeleopEnabled()) {
+      previousTimestamp = Double.NaN;
+      return;
+    }
+
+    double elapsedTime = Double.isNaN(previousTimestamp) ? 0 : raw.timestamp - previousTimestamp;
+    previousTimestamp = raw.timestamp;
+    totalSeconds += elapsedTime;
+
+    updateStick(left, raw.leftX, raw.leftY, leftX, leftY, leftLimited, deadzone, elapsedTime);
+    updateStick(right, raw.rightX, raw.rightY, rightX, rightY, rightLimited, deadzone, elapsedTime);
+    triggerSeconds[left][bin(raw.leftTrigger, triggerBinWidth, triggerBins)] += elapsedTime;
+    triggerSeconds[right][bin(raw.rightTrigger, triggerBinWidth, triggerBins)] += elapsedTime;
+  }
+
+  private void updateStick(int stick, double rawX, double rawY, double x, double y, boolean limited,
+                           double deadzone, double elapsedTime) {
+    double rawMagnitude = Math.sqrt(rawX * rawX + rawY * rawY);
+    double magnitude = Math.sqrt(x * x + y * y);
+    rawMagnitudeSeconds[stick][bin(rawMagnitude, magnitudeBinWidth, magnitudeBins)] += elapsedTime;
+    processedMagnitudeSeconds[stick][bin(magnitude, magnitudeBinWidth, magnitudeBins)] += elapsedTime;
+
+    // <> the deadzone is applied per axis, so the stick is only dead when both axes are
+    if (Math.abs(rawX) < deadzone && Math.abs(rawY) < deadzone) {
+      deadzoneSeconds[stick] += elapsedTime;
+    }
+    if (limited) {
+      rateLimitedSeconds[stick] += elapsedTime;
+    }
+  }
+
+  private static int bin(double value, double width, int bins) {
+    return Math.max(0, Math.min((int) (value / width), bins - 1));
+  }
+
+  /**
+   * <> gets how much teleop time has been collected
+   *
+   * @return the time in seconds
+   */
+  public double getTotalSeconds() {
+    return totalSeconds;
+  }
+
+  /**
+   * <> writes everything collected so far as csv, replacing any file at the path
+   *
+   * <p> the first rows are the teleop time and the deadzone and rate
+   * limited time of each stick (in seconds and as a fraction of the
+   * teleop time). after that is a row for every histogram bin, with the
+   * bin's lower bound and the seconds spent in it for the left and right
+   * stick (or trigger) </p>
+   *
+   * @param path the file to write
+   * @throws IOException if the file can't be written
+   */
+  public void dump(Path path) throws IOException {
+    StringBuilder csv = new StringBuilder("stat,bin,left,right\n");
+    csv.append("teleopSeconds,,").append(totalSeconds).append(',').append(totalSeconds).append('\n');
+    appendTotal(csv, "deadzoneSeconds", deadzoneSeconds);
+    appendTotal(csv, "rateLimitedSeconds", rateLimitedSeconds);
+    appendHistogram(csv, "rawMagnitude", rawMagnitudeSeconds, magnitudeBinWidth);
+    appendHistogram(csv, "processedMagnitude", processedMagnitudeSeconds, magnitudeBinWidth);
+    appendHistogram(csv, "trigger", triggerSeconds, triggerBinWidth);
+
+    Files.writeString(path, csv);
+  }
+
+  private void appendTotal(StringBuilder csv, String name, double[] seconds) {
+    csv.append(name).append(",,").append(seconds[left]).append(',').append(seconds[right]).append('\n');
+    csv.append(name).append("Fraction,,").append(fraction(seconds[left])).append(',')
+      .append(fraction(seconds[right])).append('\n');
+  }
+
+  private static void appendHistogram(StringBuilder csv, String name, double[][] seconds, double width) {
+    for (int bin = 0; bin < seconds[left].length; bin++) {
+      csv.append(name).append(',').append(bin * width).append(',').append(seconds[left][bin]).append(',')
+        .append(seconds[right][bin]).append('\n');
+    }
+  }
+
+  private double fraction(double seconds) {
+    return totalSeconds == 0 ? 0 : seconds / totalSeconds;
+  }
+
+  /** <> throws away everything collected so far, for starting the next match */
+  public void reset() {
+    for (int stick = left; stick <= right; stick++) {
+      Arrays.fill(rawMagnitudeSeconds[stick], 0);
+      Arrays.fill(processedMagnitudeSeconds[stick], 0);
+      Arrays.fill(triggerSeconds[stick], 0);
+      deadzoneSeconds[stick] = 0;
+      rateLimitedSeconds[stick] = 0;
+    }
+
+    totalSeconds = 0;
+    previousTimestamp = Double.NaN;
+  }
+}
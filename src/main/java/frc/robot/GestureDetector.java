@@ -0,0 +1,189 @@
+package frc.robot;
+
+import edu.wpi.first.wpilibj.event.EventLoop;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+
+import java.util.Arrays;
+
+/**
+ * <> detects chords, double taps, long holds, and sequences from a
+ * {@link JoyUtil}'s input mask, and exposes each one as a {@link Trigger}
+ *
+ * <p> Every cycle that something gets pressed, the newly pressed bits and
+ * the time go into a fixed size ring buffer. Chords and sequences look
+ * back through that buffer, and double taps and holds only need the time
+ * their mask last went down, so checking a gesture is a handful of
+ * bitwise comparisons and nothing is allocated after the gestures have
+ * been set up. Gesture triggers live on their own {@link EventLoop}, which
+ * is only polled when a gesture starts or stops (see
+ * {@link ChangeTrigger}). </p>
+ *
+ * <p> Gestures and their masks (see {@link ButtonMask}): </p>
+ *
+ * <ul>
+ *   <li> chord: every button in the mask went down within a short window
+ *   of each other, true until one of them is let go </li>
+ *   <li> double tap: the mask went down twice within a window, true
+ *   until the second press is let go </li>
+ *   <li> hold: the mask has been down for at least some time, true until
+ *   it's let go </li>
+ *   <li> sequence: each mask went down in order, all within a window,
+ *   true until the last one is let go </li>
+ * </ul>
+ */
+final class GestureDetector {
+  private static final int chordKind = 0, doubleTapKind = 1, holdKind = 2, sequenceKind = 3;
+  private static final int historySize = 16;
+
+  // <> ring buffer of newly pressed bits and when they were pressed
+  private final int[] pressedHistory = new int[historySize];
+  private final double[] timeHistory = new double[historySize];
+  private int historyCount;
+
+  // <> one entry per gesture
+  private int gestureCount;
+  private int[] kinds = new int[0];
+  private int[] masks = new int[0];
+  private double[] seconds = new double[0];
+  private int[][] sequences = new int[0][];
+  private double[] downTimes = new double[0];
+  private boolean[] active = new boolean[0];
+
+  private final EventLoop loop = new EventLoop();
+  private int previousMask;
+
+  Trigger chord(int mask, double windowSeconds) {
+    return add(chordKind, mask, windowSeconds, null);
+  }
+
+  Trigger doubleTap(int mask, double windowSeconds) {
+    return add(doubleTapKind, mask, windowSeconds, null);
+  }
+
+  Trigger hold(int mask, double holdSeconds) {
+    return add(holdKind, mask, holdSeconds, null);
+  }
+
+  Trigger sequence(double windowSeconds, int[] steps) {
+    if (steps.length == 0 || steps.length > historySize) {
+      throw new IllegalArgumentException("Sequences must have between 1 and " + historySize + " steps");
+    }
+
+    return add(sequenceKind, steps[steps.length - 1], windowSeconds, steps.clone());
+  }
+
+  private Trigger add(int kind, int mask, double gestureSeconds, int[] steps) {
+    int index = gestureCount++;
+    kinds = Arrays.copyOf(kinds, gestureCount);
+    masks = Arrays.copyOf(masks, gestureCount);
+    seconds = Arrays.copyOf(seconds, gestureCount);
+    sequences = Arrays.copyOf(sequences, gestureCount);
+    downTimes = Arrays.copyOf(downTimes, gestureCount);
+    active = Arrays.copyOf(active, gestureCount);
+
+    kinds[index] = kind;
+    masks[index] = mask;
+    seconds[index] = gestureSeconds;
+    sequences[index] = steps;
+    downTimes[index] = Double.NaN;
+
+    return new ChangeTrigger(loop, () -> active[index]);
+  }
+
+  /**
+   * <> checks every gesture against new input, polling the gesture triggers if any changed
+   *
+   * @param inputMask the current input mask
+   * @param timestamp the time of the input in seconds
+   */
+  void update(int inputMask, double timestamp) {
+    int pressed = inputMask & ~previousMask;
+    if (pressed != 0) {
+      pressedHistory[historyCount % historySize] = pressed;
+      timeHistory[historyCount % historySize] = timestamp;
+      historyCount++;
+    }
+
+    boolean changed = false;
+    for (int i = 0; i < gestureCount; i++) {
+      int mask = masks[i];
+      boolean down = (inputMask & mask) == mask;
+      boolean wentDown = down && (previousMask & mask) != mask;
+
+      boolean nowActive;
+      switch (kinds[i]) {
+        case chordKind:
+          nowActive = down && (active[i] || wentDown && pressedWithin(mask, seconds[i], timestamp));
+          break;
+        case doubleTapKind:
+          nowActive = down && active[i];
+          if (wentDown) {
+            nowActive = timestamp - downTimes[i] <= seconds[i];
+            // <> a third tap starts over instead of counting as another double tap
+            downTimes[i] = nowActive ? Double.NaN : timestamp;
+          }
+          break;
+        case holdKind:
+          if (wentDown) {
+            downTimes[i] = timestamp;
+          }
+          nowActive = down && timestamp - downTimes[i] >= seconds[i];
+          break;
+        default:
+          nowActive = down && (active[i] || wentDown && sequenceWithin(sequences[i], seconds[i], timestamp));
+          break;
+      }
+
+      if (nowActive != active[i]) {
+        active[i] = nowActive;
+        changed = true;
+      }
+    }
+
+    previousMask = inputMask;
+    if (changed) {
+      loop.poll();
+    }
+  }
+
+  /**
+   * <> whether every bit of a mask was pressed recently enough, going back
+   * through the history until all of them have been seen
+   */
+  private boolean pressedWithin(int mask, double windowSeconds, double timestamp) {
+    int seen = 0;
+    for (int back = 1; back <= Math.min(historyCount, historySize); back++) {
+      int slot = (historyCount - back) % historySize;
+      if (timestamp - timeHistory[slot] > windowSeconds) {
+        return false;
+      }
+
+      seen |= pressedHistory[slot] & mask;
+      if (seen == mask) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * <> whether the most recent presses match the steps of a sequence, with
+   * the first step recent enough
+   */
+  private boolean sequenceWithin(int[] steps, double windowSeconds, double timestamp) {
+    if (historyCount < steps.length) {
+      return false;
+    }
+
+    for (int step = 0; step < steps.length; step++) {
+      int slot = (historyCount - steps.length + step) % historySize;
+      if ((pressedHistory[slot] & steps[step]) != steps[step]) {
+        return false;
+      }
+    }
+
+    int first = (historyCount - steps.length) % historySize;
+    return timestamp - timeHistory[first] <= windowSeconds;
+  }
+}
@@ -0,0 +1,114 @@
+package frc.robot;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <> records raw controller samples into a memory mapped file as fixed size
+ * binary records, which can be played back with {@link InputReplay}
+ *
+ * <p> The whole file is mapped up front, so recording a sample is just a
+ * handful of writes into memory (the OS takes care of getting it onto the
+ * disk). Nothing is allocated per sample. Once the file is full, new samples
+ * are dropped. </p>
+ *
+ * <p> Layout (native byte order): a 16 byte header of the magic number, the
+ * record size, and the number of records written, followed by records of
+ * left x, left y, right x, right y, left trigger, right trigger (doubles),
+ * buttons, pov (ints), and the timestamp (double). </p>
+ */
+public final class InputRecorder implements AutoCloseable {
+  static final int kMagic = 0x4A4F5952; // "JOYR"
+  static final int kHeaderSize = 16;
+  static final int kRecordSize = 64;
+  static final int kCountOffset = 8;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int capacity;
+  private int count;
+
+  /**
+   * <> creates a new {@link InputRecorder}, replacing any file already at the path
+   *
+   * @param path     the file to record into
+   * @param capacity the max number of samples to record (at 50 samples a
+   *                 second, 200,000 samples is a bit over an hour in 12.8 MB)
+   * @throws IOException if the file can't be created or mapped
+   */
+  public InputRecorder(Path path, int capacity) throws IOException {
+    if (capacity < 0 || capacity > (Integer.MAX_VALUE - kHeaderSize) / kRecordSize) {
+      throw new IllegalArgumentException("Recording capacity must be between 0 and "
+        + (Integer.MAX_VALUE - kHeaderSize) / kRecordSize);
+    }
+
+    this.capacity = capacity;
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+      StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, kHeaderSize + (long) kRecordSize * capacity);
+    buffer.order(ByteOrder.nativeOrder());
+
+    buffer.putInt(0, kMagic);
+    buffer.putInt(4, kRecordSize);
+    buffer.putLong(kCountOffset, 0);
+  }
+
+  /**
+   * <> records a sample, unless the file is already full
+   *
+   * @param sample the sample to record
+   */
+  public void record(InputSnapshot sample) {
+    if (count >= capacity) {
+      return;
+    }
+
+    int offset = kHeaderSize + count * kRecordSize;
+    buffer.putDouble(offset, sample.leftX);
+    buffer.putDouble(offset + 8, sample.leftY);
+    buffer.putDouble(offset + 16, sample.rightX);
+    buffer.putDouble(offset + 24, sample.rightY);
+    buffer.putDouble(offset + 32, sample.leftTrigger);
+    buffer.putDouble(offset + 40, sample.rightTrigger);
+    buffer.putInt(offset + 48, sample.buttons);
+    buffer.putInt(offset + 52, sample.pov);
+    buffer.putDouble(offset + 56, sample.timestamp);
+
+    // <> the count is written last so that a reader never sees a half written record
+    count++;
+    buffer.putLong(kCountOffset, count);
+  }
+
+  /**
+   * <> gets the number of samples recorded so far
+   *
+   * @return the sample count
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * <> gets if the recorder has run out of room
+   *
+   * @return if the file is full
+   */
+  public boolean isFull() {
+    return count >= capacity;
+  }
+
+  /**
+   * <> flushes everything recorded to the disk and closes the file
+   *
+   * @throws IOException if the file can't be closed
+   */
+  @Override
+  public void close() throws IOException {
+    buffer.force();
+    channel.close();
+  }
+}
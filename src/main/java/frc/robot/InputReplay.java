@@ -0,0 +1,100 @@
+package frc.robot;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <> plays back a recording made by {@link InputRecorder}, reading samples
+ * straight out of the memory mapped file
+ *
+ * <p> samples come out as fast as they're asked for, so a recording can be
+ * fed through {@link JoyUtil} much faster than it was recorded </p>
+ */
+public final class InputReplay implements AutoCloseable {
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int count;
+  private int position;
+
+  /**
+   * <> opens a recording
+   *
+   * @param path the recording to open
+   * @throws IOException if the file can't be read or isn't a recording
+   */
+  public InputReplay(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    buffer.order(ByteOrder.nativeOrder());
+
+    if (channel.size() < InputRecorder.kHeaderSize || buffer.getInt(0) != InputRecorder.kMagic
+        || buffer.getInt(4) != InputRecorder.kRecordSize) {
+      channel.close();
+      throw new IOException(path + " isn't a JoyUtil input recording");
+    }
+
+    // <> a corrupted or cut short file can claim more samples than it holds,
+    // so only the samples that are actually all there get played back
+    long recorded = buffer.getLong(InputRecorder.kCountOffset);
+    long complete = (channel.size() - InputRecorder.kHeaderSize) / InputRecorder.kRecordSize;
+    this.count = (int) Math.max(0, Math.min(recorded, complete));
+  }
+
+  /**
+   * <> reads the next sample of the recording
+   *
+   * @param sample the snapshot to read the sample into
+   * @return false if the recording has ended (the snapshot is left as is)
+   */
+  public boolean next(InputSnapshot sample) {
+    if (position >= count) {
+      return false;
+    }
+
+    int offset = InputRecorder.kHeaderSize + position * InputRecorder.kRecordSize;
+    sample.leftX = buffer.getDouble(offset);
+    sample.leftY = buffer.getDouble(offset + 8);
+    sample.rightX = buffer.getDouble(offset + 16);
+    sample.rightY = buffer.getDouble(offset + 24);
+    sample.leftTrigger = buffer.getDouble(offset + 32);
+    sample.rightTrigger = buffer.getDouble(offset + 40);
+    sample.buttons = buffer.getInt(offset + 48);
+    sample.pov = buffer.getInt(offset + 52);
+    sample.timestamp = buffer.getDouble(offset + 56);
+
+    position++;
+    return true;
+  }
+
+  /** <> goes back to the start of the recording */
+  public void rewind() {
+    position = 0;
+  }
+
+  /**
+   * <> gets the number of samples in the recording
+   *
+   * @return the sample count
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * <> gets how many samples have been read so far
+   *
+   * @return the position in the recording
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,82 @@
+package frc.robot;
+
+import edu.wpi.first.wpilibj.Notifier;
+
+/**
+ * <> samples and processes a {@link JoyUtil}'s controller on its own
+ * {@link Notifier} thread, faster than the main robot loop runs, and
+ * publishes every result through a {@link SampleBuffer}
+ *
+ * <p> all of the sampler's working state belongs to the notifier thread,
+ * the only things shared with the main thread are the buffer and the
+ * port, which changes when the controller fails over </p>
+ */
+final class InputSampler implements AutoCloseable {
+  private final JoyUtil joyUtil;
+  private volatile int port;
+  private final Notifier notifier;
+  private final SampleBuffer buffer = new SampleBuffer();
+  private final InputRecorder recorder;
+  private final JoyClock clock;
+
+  private final InputSnapshot input = new InputSnapshot();
+  private final StickVector left = new StickVector();
+  private final StickVector right = new StickVector();
+
+  /**
+   * <> creates a new {@link InputSampler} and starts sampling
+   *
+   * @param joyUtil   the controller whose pipeline is run on every sample
+   * @param port      the DriverStation port to sample
+   * @param frequency how many times per second to sample
+   * @param recorder  where to record every raw sample, or null to not record
+   * @param clock     where to get the time of each sample
+   */
+  InputSampler(JoyUtil joyUtil, int port, double frequency, InputRecorder recorder, JoyClock clock) {
+    this.joyUtil = joyUtil;
+    this.port = port;
+    this.recorder = recorder;
+    this.clock = clock;
+
+    notifier = new Notifier(this::sample);
+    notifier.setName("JoyUtil Sampler " + port);
+    notifier.startPeriodic(1 / frequency);
+  }
+
+  /**
+   * <> moves sampling to a different port, starting with the next sample
+   *
+   * @param port the DriverStation port to sample
+   */
+  void setPort(int port) {
+    this.port = port;
+  }
+
+  private void sample() {
+    input.capture(port, clock.getTimestamp());
+    if (recorder != null) {
+      recorder.record(input);
+    }
+
+    joyUtil.processAxes(input, left, right);
+    buffer.write(input, left, right);
+  }
+
+  /**
+   * <> copies the latest published sample
+   *
+   * @param raw   the snapshot to copy the raw input into
+   * @param left  the vector to copy the processed left stick into
+   * @param right the vector to copy the processed right stick into
+   * @return the number of samples taken so far
+   */
+  long read(InputSnapshot raw, StickVector left, StickVector right) {
+    return buffer.read(raw, left, right);
+  }
+
+  /** <> stops sampling and waits for the notifier thread to finish */
+  @Override
+  public void close() {
+    notifier.close();
+  }
+}
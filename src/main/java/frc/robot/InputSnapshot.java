@@ -0,0 +1,85 @@
+package frc.robot;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.XboxController;
+
+/**
+ * <> one cycle worth of raw xbox controller input kept in primitive
+ * fields so it can be read as many times as needed without going
+ * back through the DriverStation (and JNI) every time
+ *
+ * <p> The snapshot is mutable and meant to be reused, so capturing
+ * new input never allocates. </p>
+ */
+public final class InputSnapshot {
+  public double leftX, leftY, rightX, rightY;
+  public double leftTrigger, rightTrigger;
+
+  /** <> button states packed so that button n is bit (n - 1) */
+  public int buttons;
+
+  /** <> pov angle in degrees, or -1 if the d-pad isn't pressed */
+  public int pov;
+
+  /** <> when the snapshot was captured in seconds, read once per capture */
+  public double timestamp;
+
+  /**
+   * <> reads every axis, the button word, the pov, and the real time for a controller
+   *
+   * @param port the DriverStation port of the controller
+   */
+  public void capture(int port) {
+    capture(port, JoyClock.kRealTime.getTimestamp());
+  }
+
+  /**
+   * <> reads every axis, the button word, and the pov for a controller
+   *
+   * @param port      the DriverStation port of the controller
+   * @param timestamp the time to stamp the snapshot with in seconds
+   */
+  public void capture(int port, double timestamp) {
+    leftX = DriverStation.getStickAxis(port, XboxController.Axis.kLeftX.value);
+    leftY = DriverStation.getStickAxis(port, XboxController.Axis.kLeftY.value);
+    rightX = DriverStation.getStickAxis(port, XboxController.Axis.kRightX.value);
+    rightY = DriverStation.getStickAxis(port, XboxController.Axis.kRightY.value);
+    leftTrigger = DriverStation.getStickAxis(port, XboxController.Axis.kLeftTrigger.value);
+    rightTrigger = DriverStation.getStickAxis(port, XboxController.Axis.kRightTrigger.value);
+
+    buttons = DriverStation.getStickButtons(port);
+    pov = DriverStation.getStickPOV(port, 0);
+    this.timestamp = timestamp;
+  }
+
+  /**
+   * <> copies all of the values of another snapshot into this one
+   *
+   * @param other the snapshot to copy from
+   */
+  public void copyFrom(InputSnapshot other) {
+    leftX = other.leftX;
+    leftY = other.leftY;
+    rightX = other.rightX;
+    rightY = other.rightY;
+    leftTrigger = other.leftTrigger;
+    rightTrigger = other.rightTrigger;
+
+    buttons = other.buttons;
+    pov = other.pov;
+    timestamp = other.timestamp;
+  }
+
+  /**
+   * <> gets if every axis, the buttons, and the pov match another snapshot.
+   * the timestamp isn't compared
+   *
+   * @param other the snapshot to compare against
+   * @return if the input is identical
+   */
+  public boolean sameInputAs(InputSnapshot other) {
+    return leftX == other.leftX && leftY == other.leftY && rightX == other.rightX && rightY == other.rightY
+      && leftTrigger == other.leftTrigger && rightTrigger == other.rightTrigger && buttons == other.buttons
+      && pov == other.pov;
+  }
+}
@@ -0,0 +1,26 @@
+package frc.robot;
+
+import edu.wpi.first.util.WPIUtilJNI;
+
+/**
+ * <> where {@link JoyUtil} gets the time for each snapshot. the snapshot
+ * timestamp is the only time any of the rate limiters and filters see, so
+ * the clock is read once per cycle no matter how many of them there are
+ *
+ * <p> {@link #kRealTime} is the default. A {@link CachedClock} shares one
+ * read between every controller in a cycle, and a {@link SimulatedClock}
+ * only moves when it's stepped, so simulations and replays can run as
+ * fast as the cpu allows and come out the same every time. </p>
+ */
+@FunctionalInterface
+public interface JoyClock {
+  /** <> the real time, the same clock SlewRateLimiter and the FPGA timestamp use */
+  JoyClock kRealTime = () -> WPIUtilJNI.now() * 1e-6;
+
+  /**
+   * <> gets the current time
+   *
+   * @return the time in seconds
+   */
+  double getTimestamp();
+}
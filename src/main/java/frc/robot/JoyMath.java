@@ -0,0 +1,96 @@
+package frc.robot;
+
+import edu.wpi.first.math.MathUtil;
+
+/**
+ * <> the plain math behind {@link JoyUtil}'s joystick processing. this is
+ * the reference version of every stage and is kept free of any state so
+ * that it can be checked against and reused outside of robot code
+ */
+public final class JoyMath {
+  private JoyMath() {}
+
+  /**
+   * <> applies a deadzone to an input
+   *
+   * <p> the output of this functions can still be any number
+   * from 0 to 1 to allow very small outputs to still be achieved </p>
+   *
+   * @param value    the value to apply the deadzone to
+   * @param deadzone the size of the deadzone
+   * @return the value with the deadzone applied
+   */
+  public static double applyDeadzone(double value, double deadzone) {
+    // <> apply the raw deadzone
+    double deadzoned = MathUtil.applyDeadband(value, deadzone);
+
+    // <> if raw deadzoning outputs 0, return 0 now
+    if (deadzoned == 0) {
+      return 0;
+    }
+
+    // <> the code now needs to take the output with an absolute value between the
+    // deadzone and 1 and remap it so that its absolute value can be between 0
+    // and 1. this looks complicated but that's just because the ranges have to be in the
+    // negative numbers if the deadzoned value is negative
+    int multiplier = deadzoned > 0 ? 1 : -1;
+    return remap(deadzoned, deadzone * multiplier, multiplier, 0, multiplier);
+  }
+
+  /**
+   * <> curves a given input
+   *
+   * @param value        the value before the curve
+   * @param exponent1    the first exponent of the curve
+   * @param exponent2    the second exponent of the curve
+   * @param coefficient1 the coefficient applied to the first exponent
+   * @param coefficient2 the coefficient applied to the second exponent
+   * @return the value curved
+   */
+  public static double applyCurve(double value, double exponent1, double exponent2, double coefficient1,
+                                  double coefficient2) {
+    double term1 = coefficient1 * Math.pow(value, exponent1);
+    double term2 = coefficient2 * Math.pow(value, exponent2);
+
+    return term1 + term2;
+  }
+
+  /**
+   * <> apply the left and right trigger multipliers
+   *
+   * @param value                  the value before having the multipliers applied
+   * @param leftTrigger            the left trigger axis, from 0 to 1
+   * @param rightTrigger           the right trigger axis, from 0 to 1
+   * @param leftTriggerMultiplier  the multiplier that will be applied if the left trigger is pressed fully
+   * @param rightTriggerMultiplier the multiplier that will be applied if the right trigger is pressed fully
+   * @return the value with trigger multipliers applied
+   */
+  public static double applyTriggerMultipliers(double value, double leftTrigger, double rightTrigger,
+                                               double leftTriggerMultiplier, double rightTriggerMultiplier) {
+    // get the amounts we need to multiply the raw value by (take the trigger input and
+    // use it to linearly interpolate between 1 and the multiplier for the trigger)
+    double realLeftTriggerMultiplier = remap(leftTrigger, 0, 1, 1, leftTriggerMultiplier);
+    double realRightTriggerMultiplier = remap(rightTrigger, 0, 1, 1, rightTriggerMultiplier);
+
+    return value * realLeftTriggerMultiplier * realRightTriggerMultiplier;
+  }
+
+  /**
+   * <> simple (but very useful) math function that remaps a value from
+   * one range of numbers to another range of numbers
+   *
+   * @param value the value to remap
+   * @param low1  the lower bound of the range to map from
+   * @param high1 the upper bound of the range to map from
+   * @param low2  the lower bound of the range to map to
+   * @param high2 the upper bound of the range to map to
+   * @return the remapped value
+   */
+  public static double remap(double value, double low1, double high1, double low2, double high2) {
+    double range1Size = high1 - low1;
+    double range2Size = high2 - low2;
+    double percentIntoRange1 = (value - low1) / range1Size;
+
+    return low2 + range2Size * percentIntoRange1;
+  }
+}
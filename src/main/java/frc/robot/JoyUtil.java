@@ -1,10 +1,12 @@
 package frc.robot;
 
-import edu.wpi.first.math.MathUtil;
-import edu.wpi.first.math.filter.SlewRateLimiter;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.XboxController;
+import edu.wpi.first.wpilibj.event.EventLoop;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
-import frc.robot.Constants.JoyUtilConstants;
+
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * <> {@link CommandXboxController} with many joystick tweaks in addition
@@ -16,32 +18,66 @@ import frc.robot.Constants.JoyUtilConstants;
  *
  * <p> Curving is the following for input x, coefficients a and b,
  * and exponents n and k: output = a(x^n) + b(x^k) </p>
+ *
+ * <p> {@link #periodic()} has to be called from robotPeriodic before
+ * CommandScheduler.run(), so everything in the loop sees the same input. </p>
  */
 public class JoyUtil extends CommandXboxController {
-  private static final double sqrt2Over2 = Math.sqrt(2) / 2;
-  private final double deadzone;
-  private final double exponent1, exponent2, coefficient1, coefficient2;
-  private final double leftTriggerLeftStickMultiplier, rightTriggerLeftStickMultiplier;
-  private final double leftTriggerRightStickMultiplier, rightTriggerRightStickMultiplier;
-  private final SlewRateLimiter leftXRateLimiter, leftYRateLimiter, rightXRateLimiter, rightYRateLimiter;
-
-  // <> these are here so that Triggers aren't being created every 20 ms
-  private final Trigger povDownLeftTrigger = povDownLeft();
-  private final Trigger povDownRightTrigger = povDownRight();
-  private final Trigger aTrigger = a();
-  private final Trigger bTrigger = b();
-  private final Trigger xTrigger = x();
-  private final Trigger yTrigger = y();
-  private final Trigger leftBumperTrigger = leftBumper();
-  private final Trigger rightBumperTrigger = rightBumper();
-  private final Trigger leftStickTrigger = leftStick();
-  private final Trigger rightStickTrigger = rightStick();
-  private final Trigger povLeftTrigger = povLeft();
-  private final Trigger povRightTrigger = povRight();
-  private final Trigger povUpTrigger = povUp();
-  private final Trigger povDownTrigger = povDown();
-  private final Trigger povUpLeftTrigger = povUpLeft();
-  private final Trigger povUpRightTrigger = povUpRight();
+  private static final int leftXBit = 1, leftYBit = 2, rightXBit = 4, rightYBit = 8;
+  private static final int leftVectorBit = 16, rightVectorBit = 32;
+  private final AtomicReference<TuningProfile> tuningProfile;
+  private final AxisPipeline leftXPipeline, leftYPipeline, rightXPipeline, rightYPipeline;
+  private final VectorRateLimiter leftVectorRateLimiter, rightVectorRateLimiter;
+
+  private final int primaryPort;
+  private int port;
+  private final InputSnapshot snapshot = new InputSnapshot();
+  private TuningProfile activeProfile;
+  private JoyClock clock = JoyClock.kRealTime;
+  private POVDirection povDirection = POVDirection.kNone;
+  private int previousButtons;
+  private final BindingRegistry bindings = new BindingRegistry();
+  private final GestureDetector gestures = new GestureDetector();
+  private final RumbleEngine rumbleEngine;
+  private boolean snapshotMode = true;
+
+  // <> processed joystick outputs for the current cycle. a bit is set in
+  // computedAxes once the matching output has been calculated this cycle
+  private double leftXOutput, leftYOutput, rightXOutput, rightYOutput;
+  private int computedAxes;
+  private final StickVector leftVectorOutput = new StickVector();
+  private final StickVector rightVectorOutput = new StickVector();
+
+  // <> only set while background sampling is running
+  private InputSampler sampler;
+  private final InputSnapshot sampledSnapshot = new InputSnapshot();
+  private final StickVector sampledLeft = new StickVector();
+  private final StickVector sampledRight = new StickVector();
+
+  // <> set when a JoyUtilManager samples and processes this controller. the
+  // manager owns the pipeline state then, so it also says what was rate limited
+  private boolean managed;
+  private boolean managedLeftRateLimited, managedRightRateLimited;
+
+  private InputRecorder recorder;
+  private InputReplay replay;
+
+  // <> null unless profiling has been turned on
+  private PipelineProfiler profiler;
+
+  // <> null unless publishing to shared memory has been turned on
+  private SharedStateBus sharedStateBus;
+
+  // <> null unless analytics have been turned on
+  private DriverAnalytics analytics;
+
+  // <> failover state. standbyPort is -1 until a backup port is set, and
+  // lastInput is the input as of lastChangeTime, for noticing frozen input
+  private int standbyPort = -1;
+  private XboxController activeHID, standbyHID;
+  private double frozenSeconds;
+  private final InputSnapshot lastInput = new InputSnapshot();
+  private double lastChangeTime;
 
   /**
    * <> creates a new {@link JoyUtil} with the provided values
@@ -67,66 +103,713 @@ public class JoyUtil extends CommandXboxController {
                  double exponent2, double coefficient1, double coefficient2, double leftTriggerLeftStickMultiplier,
                  double rightTriggerLeftStickMultiplier, double leftTriggerRightStickMultiplier,
                  double rightTriggerRightStickMultiplier) {
+    this(port, new TuningProfile("default", deadzone, exponent1, exponent2, coefficient1, coefficient2,
+      leftTriggerLeftStickMultiplier, rightTriggerLeftStickMultiplier, leftTriggerRightStickMultiplier,
+      rightTriggerRightStickMultiplier), rateLimitLeft, rateLimitRight);
+  }
+
+  /**
+   * <> creates a new {@link JoyUtil} with the provided tuning profile
+   *
+   * @param port           the assigned DriverStation port
+   * @param profile        the deadzone, curve, and trigger multipliers to start with
+   * @param rateLimitLeft  the max output change that can occur in one second for the left joystick
+   * @param rateLimitRight the max output change that can occur in one second for the right joystick
+   */
+  public JoyUtil(int port, TuningProfile profile, double rateLimitLeft, double rateLimitRight) {
+    this(port, profile, AxisPipeline.builder().rateLimit(rateLimitLeft),
+      AxisPipeline.builder().rateLimit(rateLimitRight));
+  }
+
+  /**
+   * <> creates a new {@link JoyUtil} with custom per-axis pipelines
+   *
+   * @param port       the assigned DriverStation port
+   * @param profile    the deadzone, curve, and trigger multipliers to start with
+   * @param leftStick  the stages for both axes of the left joystick
+   * @param rightStick the stages for both axes of the right joystick
+   */
+  public JoyUtil(int port, TuningProfile profile, AxisPipeline.Builder leftStick, AxisPipeline.Builder rightStick) {
     super(port);
 
-    this.deadzone = deadzone;
+    this.primaryPort = port;
+    this.port = port;
+    this.tuningProfile = new AtomicReference<>(profile);
+    this.activeProfile = profile;
+
+    this.leftXPipeline = leftStick.build();
+    this.leftYPipeline = leftStick.build();
+    this.rightXPipeline = rightStick.build();
+    this.rightYPipeline = rightStick.build();
+    this.leftVectorRateLimiter = new VectorRateLimiter(leftStick.getRateLimit());
+    this.rightVectorRateLimiter = new VectorRateLimiter(rightStick.getRateLimit());
+    this.activeHID = super.getHID();
+    this.rumbleEngine = new RumbleEngine(activeHID);
+
+    update();
+  }
+
+  /**
+   * <> reads all controller input into the snapshot and clears the
+   * processed outputs of the last cycle
+   *
+   * <p> this is done by {@link #periodic()} when in snapshot mode, so it
+   * only needs to be called on its own to read input without running
+   * triggers, rumble, and the rest </p>
+   */
+  public void update() {
+    if (profiler == null) {
+      readInput();
+      return;
+    }
+
+    PipelineProfiler activeProfiler = profiler;
+    long startBytes = activeProfiler.currentAllocatedBytes();
+    long start = System.nanoTime();
+    readInput();
+    activeProfiler.record(PipelineProfiler.kHIDRead, System.nanoTime() - start);
+    activeProfiler.recordAllocation(startBytes);
+    activeProfiler.periodic();
+  }
+
+  private void readInput() {
+    // <> the manager hands over samples itself with loadProcessedSample
+    if (managed) {
+      return;
+    }
+
+    if (sampler != null) {
+      // <> the sampler thread has already processed the axes, so take them as they are
+      sampler.read(sampledSnapshot, sampledLeft, sampledRight);
+      loadProcessedSample(sampledSnapshot, sampledLeft, sampledRight);
+      return;
+    }
+
+    previousButtons = snapshot.buttons;
+    activeProfile = tuningProfile.get();
+
+    if (replay != null && replay.next(snapshot)) {
+      computedAxes = 0;
+    } else {
+      // <> go back to the real controller once a replay runs out
+      if (replay != null) {
+        replay = null;
+        resetTimeBase();
+      }
+      snapshot.capture(port, clock.getTimestamp());
+      // <> read the new controller straight away, so the cycle that fails over already uses it
+      if (checkFailover(snapshot)) {
+        snapshot.capture(port, snapshot.timestamp);
+      }
+      if (recorder != null) {
+        recorder.record(snapshot);
+      }
+
+      computedAxes = 0;
+    }
+
+    povDirection = POVDirection.fromAngle(snapshot.pov);
+  }
+
+  /**
+   * <> takes a sample that has already been run through the per-axis
+   * pipeline somewhere else as the new snapshot
+   *
+   * @param raw   the raw input of the sample
+   * @param left  the processed left stick
+   * @param right the processed right stick
+   */
+  void loadProcessedSample(InputSnapshot raw, StickVector left, StickVector right) {
+    // <> the sample was read before any failover, so the new port is used from the next sample on
+    checkFailover(raw);
+
+    previousButtons = snapshot.buttons;
+    activeProfile = tuningProfile.get();
+    snapshot.copyFrom(raw);
+    povDirection = POVDirection.fromAngle(snapshot.pov);
+
+    leftXOutput = left.x;
+    leftYOutput = left.y;
+    rightXOutput = right.x;
+    rightYOutput = right.y;
+    computedAxes = leftXBit | leftYBit | rightXBit | rightYBit;
+  }
+
+  /**
+   * <> sets whether or not a {@link JoyUtilManager} is in charge of sampling
+   * and processing this controller. background sampling is stopped, since
+   * it would keep advancing the pipelines the manager copies
+   *
+   * @param managed true if the controller is managed
+   * @throws IllegalStateException if the controller is recording, replaying, or profiling
+   */
+  void setManaged(boolean managed) {
+    if (managed) {
+      if (recorder != null || replay != null || profiler != null) {
+        throw new IllegalStateException("A JoyUtil can't be managed while recording, replaying, or profiling");
+      }
+      stopBackgroundSampling();
+    }
+
+    this.managed = managed;
+  }
+
+  private void requireUnmanaged(String feature) {
+    if (managed) {
+      throw new IllegalStateException(feature + " isn't supported on a JoyUtil managed by a JoyUtilManager");
+    }
+  }
+
+  /**
+   * <> sets whether the manager's rate limits held back each stick this loop
+   *
+   * @param left  if either left stick axis was held back
+   * @param right if either right stick axis was held back
+   */
+  void setManagedRateLimited(boolean left, boolean right) {
+    managedLeftRateLimited = left;
+    managedRightRateLimited = right;
+  }
+
+  /**
+   * <> gets the DriverStation port currently being read, which is the
+   * backup port after failing over
+   *
+   * @return the active port
+   */
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * <> gets the controller currently being read, which is the backup's
+   * after failing over
+   *
+   * @return the active controller
+   */
+  @Override
+  public XboxController getHID() {
+    return activeHID;
+  }
+
+  /**
+   * <> gets if the controller has failed over from the port it was created with
+   *
+   * @return if the backup port is being read
+   */
+  public boolean isOnBackup() {
+    return port != primaryPort;
+  }
+
+  /**
+   * <> sets a backup controller to fail over to, counting input as frozen
+   * once it hasn't changed at all for half a second
+   *
+   * @param backupPort the DriverStation port of the backup, or -1 to stop failing over
+   * @see #setBackupPort(int, double)
+   */
+  public void setBackupPort(int backupPort) {
+    setBackupPort(backupPort, 0.5);
+  }
+
+  /**
+   * <> sets a backup controller to fail over to
+   *
+   * <p> the active controller is checked against the newest input every
+   * cycle. if it's disconnected and the backup is connected, input comes
+   * from the backup from that cycle on. if its input hasn't changed at all
+   * for frozenSeconds, it only fails over once the backup is being used (a
+   * button, the d-pad, or an axis past the deadzone), since a controller
+   * sitting untouched on the table looks frozen too. while frozen, the
+   * backup is checked every cycle, so it takes over on the first cycle
+   * it's used. the old controller becomes the backup, so failing over
+   * works both ways </p>
+   *
+   * <p> the pipelines aren't touched, so the output is rate limited from
+   * where it was instead of jumping, and every trigger keeps working since
+   * they all read whichever port is active. rumble moves over too </p>
+   *
+   * @param backupPort    the DriverStation port of the backup, or -1 to stop failing over
+   * @param frozenSeconds how long input has to stay exactly the same to count as frozen
+   */
+  public void setBackupPort(int backupPort, double frozenSeconds) {
+    if (backupPort == port) {
+      throw new IllegalArgumentException("The backup port can't be the port already being read");
+    }
+
+    this.frozenSeconds = frozenSeconds;
+    standbyPort = backupPort;
+    standbyHID = backupPort < 0 ? null : new XboxController(backupPort);
+    lastInput.copyFrom(snapshot);
+    lastChangeTime = snapshot.timestamp;
+  }
+
+  /**
+   * <> checks the newest input for a disconnected or frozen controller, and
+   * swaps the active and standby ports if the standby looks alive
+   *
+   * @param input the newest input from the active port
+   * @return if the ports were swapped
+   */
+  private boolean checkFailover(InputSnapshot input) {
+    if (standbyPort < 0) {
+      return false;
+    }
+
+    boolean connected = DriverStation.isJoystickConnected(port);
+    if (connected && !input.sameInputAs(lastInput)) {
+      lastInput.copyFrom(input);
+      lastChangeTime = input.timestamp;
+      return false;
+    }
+    if (connected && input.timestamp - lastChangeTime < frozenSeconds) {
+      return false;
+    }
+
+    if (!DriverStation.isJoystickConnected(standbyPort) || connected && !isStandbyInUse()) {
+      return false;
+    }
+
+    int failedPort = port;
+    port = standbyPort;
+    standbyPort = failedPort;
+
+    XboxController failedHID = activeHID;
+    activeHID = standbyHID;
+    standbyHID = failedHID;
+    rumbleEngine.setHID(activeHID);
+
+    if (sampler != null) {
+      sampler.setPort(port);
+    }
+
+    lastChangeTime = input.timestamp;
+    DriverStation.reportWarning("JoyUtil controller on port " + failedPort + (connected ? " froze" : " disconnected")
+      + ", switched to port " + port, false);
+    return true;
+  }
+
+  private boolean isStandbyInUse() {
+    // <> all of these read the DriverStation's cached arrays, so checking every cycle is cheap
+    if (DriverStation.getStickButtons(standbyPort) != 0 || DriverStation.getStickPOV(standbyPort, 0) != -1) {
+      return true;
+    }
+
+    double deadzone = activeProfile.getDeadzone();
+    return Math.abs(DriverStation.getStickAxis(standbyPort, XboxController.Axis.kLeftX.value)) > deadzone
+      || Math.abs(DriverStation.getStickAxis(standbyPort, XboxController.Axis.kLeftY.value)) > deadzone
+      || Math.abs(DriverStation.getStickAxis(standbyPort, XboxController.Axis.kRightX.value)) > deadzone
+      || Math.abs(DriverStation.getStickAxis(standbyPort, XboxController.Axis.kRightY.value)) > deadzone
+      || DriverStation.getStickAxis(standbyPort, XboxController.Axis.kLeftTrigger.value) > deadzone
+      || DriverStation.getStickAxis(standbyPort, XboxController.Axis.kRightTrigger.value) > deadzone;
+  }
+
+  AxisPipeline getLeftXPipeline() {
+    return leftXPipeline;
+  }
+
+  AxisPipeline getLeftYPipeline() {
+    return leftYPipeline;
+  }
+
+  AxisPipeline getRightXPipeline() {
+    return rightXPipeline;
+  }
+
+  AxisPipeline getRightYPipeline() {
+    return rightYPipeline;
+  }
+
+  /**
+   * <> swaps to a different tuning profile. safe to call from any thread,
+   * and the new profile is used starting at the next snapshot
+   *
+   * @param profile the profile to use
+   */
+  public void setTuningProfile(TuningProfile profile) {
+    tuningProfile.set(profile);
+  }
+
+  /**
+   * <> gets the most recently set tuning profile
+   *
+   * @return the tuning profile
+   */
+  public TuningProfile getTuningProfile() {
+    return tuningProfile.get();
+  }
+
+  /**
+   * <> sets where the time for each snapshot comes from. every rate
+   * limiter and filter only sees the snapshot time, so this is the only
+   * clock read in a cycle
+   *
+   * @param clock the clock to use, {@link JoyClock#kRealTime} by default
+   * @apiNote a {@link CachedClock} shouldn't be used with background sampling
+   */
+  public void setClock(JoyClock clock) {
+    this.clock = clock;
+  }
+
+  /**
+   * <> publishes the processed state into shared memory once per
+   * loop (see {@link #periodic()}), for other processes on the same machine to read
+   *
+   * @param bus the bus to publish into, or null to stop publishing
+   */
+  public void setSharedStateBus(SharedStateBus bus) {
+    this.sharedStateBus = bus;
+  }
+
+  /**
+   * <> feeds every loop's input into driver analytics (see {@link #periodic()})
+   *
+   * @param analytics the analytics to feed, or null to stop
+   */
+  public void setAnalytics(DriverAnalytics analytics) {
+    this.analytics = analytics;
+  }
+
+  /**
+   * <> turns on per-stage timing and allocation profiling of the pipeline.
+   * it's off by default, and costs nothing but a null check while it's off
+   *
+   * <p> profiling records from whichever thread runs the pipeline, so while
+   * background sampling the results are read across threads and are only
+   * approximate </p>
+   *
+   * @param profiler the profiler to record into, or null to turn profiling off
+   * @throws IllegalStateException if a {@link JoyUtilManager} manages the controller
+   */
+  public void setProfiler(PipelineProfiler profiler) {
+    if (profiler != null) {
+      requireUnmanaged("Profiling");
+    }
+    this.profiler = profiler;
+  }
+
+  /**
+   * <> starts sampling and processing the controller on a background thread
+   *
+   * <p> while sampling, the per-axis rate limiters are advanced on every
+   * sample instead of every cycle, and the per-axis getters return the
+   * newest processed sample as of the last snapshot </p>
+   *
+   * @param frequency how many times per second to sample (200 to 500 works well)
+   * @throws IllegalStateException if a {@link JoyUtilManager} manages the controller
+   */
+  public void startBackgroundSampling(double frequency) {
+    requireUnmanaged("Background sampling");
+    stopBackgroundSampling();
+    sampler = new InputSampler(this, port, frequency, recorder, clock);
+  }
+
+  /**
+   * <> stops background sampling and goes back to reading the controller
+   * once per snapshot. rate limiter state carries over
+   */
+  public void stopBackgroundSampling() {
+    if (sampler != null) {
+      sampler.close();
+      sampler = null;
+    }
+  }
+
+  /**
+   * <> sets where raw samples get recorded. while background sampling,
+   * every sample is recorded from the sampler thread, so the recorder
+   * should be set before sampling is started
+   *
+   * @param recorder the recorder to use, or null to stop recording
+   * @throws IllegalStateException if a {@link JoyUtilManager} manages the controller
+   */
+  public void setRecorder(InputRecorder recorder) {
+    if (recorder != null) {
+      requireUnmanaged("Recording");
+    }
+    this.recorder = recorder;
+  }
+
+  /**
+   * <> feeds a recording through the pipeline instead of reading the
+   * controller. each snapshot takes the next sample of the recording, and
+   * once it runs out the controller is read again. this stops background
+   * sampling
+   *
+   * <p> nothing waits on the clock, so calling {@link #update()} and the
+   * getters in a loop plays back as fast as the pipeline can run </p>
+   *
+   * @param replay the recording to play back
+   * @throws IllegalStateException if a {@link JoyUtilManager} manages the controller
+   */
+  public void startReplay(InputReplay replay) {
+    requireUnmanaged("Replaying");
+    stopBackgroundSampling();
+    this.replay = replay;
+    resetTimeBase();
+  }
+
+  /**
+   * <> starts the pipelines' and vector rate limiters' timing over, keeping
+   * their outputs where they are. the recording's timestamps and the clock
+   * have nothing to do with each other, so going into or out of a replay
+   * would otherwise look like time jumping (usually backwards)
+   */
+  private void resetTimeBase() {
+    leftXPipeline.reset(leftXPipeline.getOutput());
+    leftYPipeline.reset(leftYPipeline.getOutput());
+    rightXPipeline.reset(rightXPipeline.getOutput());
+    rightYPipeline.reset(rightYPipeline.getOutput());
+    leftVectorRateLimiter.reset(leftVectorOutput.x, leftVectorOutput.y);
+    rightVectorRateLimiter.reset(rightVectorOutput.x, rightVectorOutput.y);
+  }
+
+  /**
+   * <> gets if a recording is currently being played back
+   *
+   * @return if a replay is running
+   */
+  public boolean isReplaying() {
+    return replay != null;
+  }
+
+  /**
+   * <> copies the newest background sample, which may be newer than the
+   * current snapshot. never blocks and never returns a torn sample
+   *
+   * @param raw   the snapshot to copy the raw input into
+   * @param left  the vector to copy the processed left stick into
+   * @param right the vector to copy the processed right stick into
+   * @return the number of samples taken so far, or -1 if background sampling isn't running
+   */
+  public long getLatestSample(InputSnapshot raw, StickVector left, StickVector right) {
+    if (sampler == null) {
+      return -1;
+    }
+
+    return sampler.read(raw, left, right);
+  }
 
-    this.leftXRateLimiter = new SlewRateLimiter(rateLimitLeft);
-    this.leftYRateLimiter = new SlewRateLimiter(rateLimitLeft);
-    this.rightXRateLimiter = new SlewRateLimiter(rateLimitRight);
-    this.rightYRateLimiter = new SlewRateLimiter(rateLimitRight);
+  /**
+   * <> sets whether or not input is only read once per cycle
+   *
+   * @param enabled true to serve every getter from the per-cycle snapshot,
+   *                false to read fresh input on every getter call
+   */
+  public void setSnapshotMode(boolean enabled) {
+    snapshotMode = enabled;
+  }
 
-    this.exponent1 = exponent1;
-    this.exponent2 = exponent2;
-    this.coefficient1 = coefficient1;
-    this.coefficient2 = coefficient2;
+  /**
+   * <> gets whether or not input is only read once per cycle
+   *
+   * @return if snapshot mode is enabled
+   */
+  public boolean isSnapshotMode() {
+    return snapshotMode;
+  }
+
+  /**
+   * <> runs everything that happens once per robot loop: takes a new
+   * snapshot (in snapshot mode), runs the button and gesture triggers,
+   * updates rumble, and feeds the shared state bus and analytics
+   *
+   * <p> call this from robotPeriodic before CommandScheduler.run().
+   * subsystem periodic() methods run before the scheduler polls any
+   * triggers, so hooking into the scheduler would leave them reading the
+   * last loop's input </p>
+   *
+   * <p> a controller managed by a {@link JoyUtilManager} does nothing here,
+   * since the manager runs all of this for it once its sample is ready </p>
+   */
+  public void periodic() {
+    if (managed) {
+      return;
+    }
+
+    if (snapshotMode) {
+      update();
+    }
+
+    finishCycle();
+  }
+
+  /**
+   * <> everything a loop does after the snapshot has been taken: triggers,
+   * gestures, rumble, the shared state bus, and analytics
+   */
+  void finishCycle() {
+    dispatchBindings();
+    rumbleEngine.update(clock.getTimestamp());
+
+    if (sharedStateBus != null) {
+      sharedStateBus.publish(snapshot, getLeftX(), getLeftY(), getRightX(), getRightY());
+    }
 
-    this.leftTriggerLeftStickMultiplier = leftTriggerLeftStickMultiplier;
-    this.rightTriggerLeftStickMultiplier = rightTriggerLeftStickMultiplier;
-    this.leftTriggerRightStickMultiplier = leftTriggerRightStickMultiplier;
-    this.rightTriggerRightStickMultiplier = rightTriggerRightStickMultiplier;
+    if (analytics != null) {
+      boolean leftLimited = managed ? managedLeftRateLimited
+        : leftXPipeline.isRateLimited() || leftYPipeline.isRateLimited();
+      boolean rightLimited = managed ? managedRightRateLimited
+        : rightXPipeline.isRateLimited() || rightYPipeline.isRateLimited();
+      analytics.update(snapshot, getLeftX(), getLeftY(), getRightX(), getRightY(), leftLimited, rightLimited,
+        activeProfile.getDeadzone());
+    }
+  }
 
-    // <> even exponents make for very weird behaviour so provide
-    // a one-time warning in the rio log if there are even exponents
-    if (exponent1 % 2 == 0 || exponent2 % 2 == 0) {
-      System.out.println("Exponents of joystick curve aren't odd!");
+  /**
+   * <> makes sure the snapshot is up to date before it gets read. outside of
+   * snapshot mode this means reading new input every time
+   */
+  private void refresh() {
+    if (!snapshotMode) {
+      update();
     }
   }
 
   @Override
   public double getLeftX() {
-    double rawOutput = super.getLeftX();
-    double preRateLimiting = composeJoystickFunctions(rawOutput, leftTriggerLeftStickMultiplier,
-      rightTriggerLeftStickMultiplier);
+    refresh();
+    if ((computedAxes & leftXBit) == 0) {
+      leftXOutput = processLeftX(snapshot, activeProfile);
+      computedAxes |= leftXBit;
+    }
 
-    return leftXRateLimiter.calculate(preRateLimiting);
+    return leftXOutput;
   }
 
   @Override
   public double getRightX() {
-    double rawOutput = super.getRightX();
-    double preRateLimiting = composeJoystickFunctions(rawOutput, leftTriggerRightStickMultiplier,
-      rightTriggerRightStickMultiplier);
+    refresh();
+    if ((computedAxes & rightXBit) == 0) {
+      rightXOutput = processRightX(snapshot, activeProfile);
+      computedAxes |= rightXBit;
+    }
 
-    return rightXRateLimiter.calculate(preRateLimiting);
+    return rightXOutput;
   }
 
   @Override
   public double getLeftY() {
-    double rawOutput = super.getLeftY();
-    double preRateLimiting = composeJoystickFunctions(rawOutput, leftTriggerLeftStickMultiplier,
-      rightTriggerLeftStickMultiplier);
+    refresh();
+    if ((computedAxes & leftYBit) == 0) {
+      leftYOutput = processLeftY(snapshot, activeProfile);
+      computedAxes |= leftYBit;
+    }
 
-    return leftYRateLimiter.calculate(preRateLimiting);
+    return leftYOutput;
   }
 
   @Override
   public double getRightY() {
-    double rawOutput = super.getRightY();
-    double preRateLimiting = composeJoystickFunctions(rawOutput, leftTriggerRightStickMultiplier,
-      rightTriggerRightStickMultiplier);
+    refresh();
+    if ((computedAxes & rightYBit) == 0) {
+      rightYOutput = processRightY(snapshot, activeProfile);
+      computedAxes |= rightYBit;
+    }
 
-    return rightYRateLimiter.calculate(preRateLimiting);
+    return rightYOutput;
+  }
+
+  /**
+   * <> runs all four axes of an input through the per-axis pipeline
+   *
+   * @param input the raw input
+   * @param left  the vector to write the processed left stick into
+   * @param right the vector to write the processed right stick into
+   */
+  void processAxes(InputSnapshot input, StickVector left, StickVector right) {
+    TuningProfile profile = tuningProfile.get();
+    left.set(processLeftX(input, profile), processLeftY(input, profile));
+    right.set(processRightX(input, profile), processRightY(input, profile));
+  }
+
+  private double processAxis(double value, InputSnapshot input, TuningProfile profile, boolean leftStick,
+                             AxisPipeline pipeline) {
+    double leftTriggerMultiplier = leftStick ? profile.getLeftTriggerLeftStickMultiplier()
+      : profile.getLeftTriggerRightStickMultiplier();
+    double rightTriggerMultiplier = leftStick ? profile.getRightTriggerLeftStickMultiplier()
+      : profile.getRightTriggerRightStickMultiplier();
+
+    PipelineProfiler activeProfiler = profiler;
+    if (activeProfiler == null) {
+      return pipeline.calculate(value, input.leftTrigger, input.rightTrigger, profile.getCurveEngine(),
+        leftTriggerMultiplier, rightTriggerMultiplier, input.timestamp);
+    }
+
+    long startBytes = activeProfiler.currentAllocatedBytes();
+    double output = pipeline.calculate(value, input.leftTrigger, input.rightTrigger, profile.getCurveEngine(),
+      leftTriggerMultiplier, rightTriggerMultiplier, input.timestamp, activeProfiler);
+    activeProfiler.recordAllocation(startBytes);
+
+    return output;
+  }
+
+  private double processLeftX(InputSnapshot input, TuningProfile profile) {
+    return processAxis(input.leftX, input, profile, true, leftXPipeline);
+  }
+
+  private double processLeftY(InputSnapshot input, TuningProfile profile) {
+    return processAxis(input.leftY, input, profile, true, leftYPipeline);
+  }
+
+  private double processRightX(InputSnapshot input, TuningProfile profile) {
+    return processAxis(input.rightX, input, profile, false, rightXPipeline);
+  }
+
+  private double processRightY(InputSnapshot input, TuningProfile profile) {
+    return processAxis(input.rightY, input, profile, false, rightYPipeline);
+  }
+
+  /**
+   * <> processes the left stick as a vector (circular deadzone, curved
+   * magnitude, trigger multipliers, then vector rate limiting). this has
+   * its own rate limiter, so don't mix it with the per-axis getters
+   *
+   * @param output the vector to write the processed stick into
+   * @return the output vector
+   */
+  public StickVector getLeftStickVector(StickVector output) {
+    refresh();
+    if ((computedAxes & leftVectorBit) == 0) {
+      activeProfile.composeLeftStickVector(snapshot.leftX, snapshot.leftY, snapshot.leftTrigger,
+        snapshot.rightTrigger, leftVectorOutput);
+      leftVectorRateLimiter.calculate(leftVectorOutput, snapshot.timestamp);
+      computedAxes |= leftVectorBit;
+    }
+
+    return output.set(leftVectorOutput);
+  }
+
+  /**
+   * <> processes the right stick as a vector (circular deadzone, curved
+   * magnitude, trigger multipliers, then vector rate limiting). this has
+   * its own rate limiter, so don't mix it with the per-axis getters
+   *
+   * @param output the vector to write the processed stick into
+   * @return the output vector
+   */
+  public StickVector getRightStickVector(StickVector output) {
+    refresh();
+    if ((computedAxes & rightVectorBit) == 0) {
+      activeProfile.composeRightStickVector(snapshot.rightX, snapshot.rightY, snapshot.leftTrigger,
+        snapshot.rightTrigger, rightVectorOutput);
+      rightVectorRateLimiter.calculate(rightVectorOutput, snapshot.timestamp);
+      computedAxes |= rightVectorBit;
+    }
+
+    return output.set(rightVectorOutput);
+  }
+
+  @Override
+  public double getLeftTriggerAxis() {
+    refresh();
+    return snapshot.leftTrigger;
+  }
+
+  @Override
+  public double getRightTriggerAxis() {
+    refresh();
+    return snapshot.rightTrigger;
   }
 
   /**
@@ -135,7 +818,7 @@ public class JoyUtil extends CommandXboxController {
    * @return the value of the A button
    */
   public boolean getAButton() {
-    return aTrigger.getAsBoolean();
+    return getButton(XboxController.Button.kA);
   }
 
   /**
@@ -144,7 +827,7 @@ public class JoyUtil extends CommandXboxController {
    * @return the value of the B button
    */
   public boolean getBButton() {
-    return bTrigger.getAsBoolean();
+    return getButton(XboxController.Button.kB);
   }
 
   /**
@@ -153,7 +836,7 @@ public class JoyUtil extends CommandXboxController {
    * @return the value of the X button
    */
   public boolean getXButton() {
-    return xTrigger.getAsBoolean();
+    return getButton(XboxController.Button.kX);
   }
 
   /**
@@ -162,7 +845,7 @@ public class JoyUtil extends CommandXboxController {
    * @return the value of the Y button
    */
   public boolean getYButton() {
-    return yTrigger.getAsBoolean();
+    return getButton(XboxController.Button.kY);
   }
 
   /**
@@ -171,7 +854,7 @@ public class JoyUtil extends CommandXboxController {
    * @return the value of the left bumper
    */
   public boolean getLeftBumper() {
-    return leftBumperTrigger.getAsBoolean();
+    return getButton(XboxController.Button.kLeftBumper);
   }
 
   /**
@@ -180,7 +863,7 @@ public class JoyUtil extends CommandXboxController {
    * @return the value of the right bumper
    */
   public boolean getRightBumper() {
-    return rightBumperTrigger.getAsBoolean();
+    return getButton(XboxController.Button.kRightBumper);
   }
 
   /**
@@ -189,7 +872,7 @@ public class JoyUtil extends CommandXboxController {
    * @return the value of the left stick
    */
   public boolean getLeftStick() {
-    return leftStickTrigger.getAsBoolean();
+    return getButton(XboxController.Button.kLeftStick);
   }
 
   /**
@@ -198,7 +881,7 @@ public class JoyUtil extends CommandXboxController {
    * @return the value of the right stick
    */
   public boolean getRightStick() {
-    return rightStickTrigger.getAsBoolean();
+    return getButton(XboxController.Button.kRightStick);
   }
 
   /**
@@ -207,7 +890,7 @@ public class JoyUtil extends CommandXboxController {
    * @return if the d-pad is facing left
    */
   public boolean getPOVLeft() {
-    return povLeftTrigger.getAsBoolean();
+    return getPOVDirection() == POVDirection.kLeft;
   }
 
   /**
@@ -216,7 +899,7 @@ public class JoyUtil extends CommandXboxController {
    * @return if the d-pad is facing right
    */
   public boolean getPOVRight() {
-    return povRightTrigger.getAsBoolean();
+    return getPOVDirection() == POVDirection.kRight;
   }
 
   /**
@@ -225,7 +908,7 @@ public class JoyUtil extends CommandXboxController {
    * @return if the d-pad is facing up
    */
   public boolean getPOVUp() {
-    return povUpTrigger.getAsBoolean();
+    return getPOVDirection() == POVDirection.kUp;
   }
 
   /**
@@ -234,7 +917,7 @@ public class JoyUtil extends CommandXboxController {
    * @return if the d-pad is facing down
    */
   public boolean getPOVDown() {
-    return povDownTrigger.getAsBoolean();
+    return getPOVDirection() == POVDirection.kDown;
   }
 
   /**
@@ -243,7 +926,7 @@ public class JoyUtil extends CommandXboxController {
    * @return if the d-pad is facing up left
    */
   public boolean getPOVUpLeft() {
-    return povUpLeftTrigger.getAsBoolean();
+    return getPOVDirection() == POVDirection.kUpLeft;
   }
 
   /**
@@ -252,7 +935,7 @@ public class JoyUtil extends CommandXboxController {
    * @return if the d-pad is facing up right
    */
   public boolean getPOVUpRight() {
-    return povUpRightTrigger.getAsBoolean();
+    return getPOVDirection() == POVDirection.kUpRight;
   }
 
   /**
@@ -261,7 +944,7 @@ public class JoyUtil extends CommandXboxController {
    * @return if the d-pad is facing down left
    */
   public boolean getPOVDownLeft() {
-    return povDownLeftTrigger.getAsBoolean();
+    return getPOVDirection() == POVDirection.kDownLeft;
   }
 
   /**
@@ -270,7 +953,7 @@ public class JoyUtil extends CommandXboxController {
    * @return if the d-pad is facing down right
    */
   public boolean getPOVDownRight() {
-    return povDownRightTrigger.getAsBoolean();
+    return getPOVDirection() == POVDirection.kDownRight;
   }
 
   /**
@@ -279,7 +962,7 @@ public class JoyUtil extends CommandXboxController {
    * @return if the d-pad isn't pressed
    */
   public boolean getPOVNotPressed() {
-    return !getPOVLeft() && !getPOVUpLeft() && !getPOVUp() && !getPOVUpRight() && !getPOVRight() && !getPOVDownRight() && !getPOVDown() && !getPOVDownLeft();
+    return !getPOVDirection().isPressed();
   }
 
   /**
@@ -288,17 +971,7 @@ public class JoyUtil extends CommandXboxController {
    * @return the value
    */
   public double getPOVYAxis() {
-    if (getPOVUp()) {
-      return 1;
-    } else if (getPOVDown()) {
-      return -1;
-    } else if (getPOVUpLeft() || getPOVUpRight()) {
-      return sqrt2Over2;
-    } else if (getPOVDownLeft() || getPOVDownRight()) {
-      return -sqrt2Over2;
-    } else {
-      return 0;
-    }
+    return getPOVDirection().getY();
   }
 
   /**
@@ -307,109 +980,516 @@ public class JoyUtil extends CommandXboxController {
    * @return the value
    */
   public double getPOVXAxis() {
-    if (getPOVRight()) {
-      return 1;
-    } else if (getPOVLeft()) {
-      return -1;
-    } else if (getPOVUpRight() || getPOVDownRight()) {
-      return sqrt2Over2;
-    } else if (getPOVUpLeft() || getPOVDownLeft()) {
-      return -sqrt2Over2;
-    } else {
-      return 0;
-    }
+    return getPOVDirection().getX();
+  }
+
+  /**
+   * <> gets the direction the d-pad is pointed, decoded once per cycle
+   *
+   * @return the direction of the d-pad
+   */
+  public POVDirection getPOVDirection() {
+    refresh();
+    return povDirection;
+  }
+
+  /**
+   * <> gets the state of every button as a mask
+   *
+   * @return the buttons that are currently down (see {@link ButtonMask})
+   */
+  public int getButtonMask() {
+    refresh();
+    return snapshot.buttons;
+  }
+
+  /**
+   * <> gets the state of every button and the d-pad as one mask
+   *
+   * @return the buttons that are down along with the bit of the d-pad direction (see {@link ButtonMask})
+   */
+  public int getInputMask() {
+    return getButtonMask() | ButtonMask.of(getPOVDirection());
+  }
+
+  /**
+   * <> copies the raw input of the current snapshot
+   *
+   * @param output the snapshot to copy into
+   * @return the output snapshot
+   */
+  public InputSnapshot getSnapshot(InputSnapshot output) {
+    refresh();
+    output.copyFrom(snapshot);
+    return output;
+  }
+
+  /**
+   * <> gets the buttons that went down since the last snapshot
+   *
+   * @return the mask of newly pressed buttons
+   */
+  public int getPressedMask() {
+    refresh();
+    return snapshot.buttons & ~previousButtons;
+  }
+
+  /**
+   * <> gets the buttons that came up since the last snapshot
+   *
+   * @return the mask of newly released buttons
+   */
+  public int getReleasedMask() {
+    refresh();
+    return ~snapshot.buttons & previousButtons;
+  }
+
+  /**
+   * <> gets the buttons that were down in both this snapshot and the last one
+   *
+   * @return the mask of held buttons
+   */
+  public int getHeldMask() {
+    refresh();
+    return snapshot.buttons & previousButtons;
+  }
+
+  /**
+   * <> gets the buttons that changed state since the last snapshot
+   *
+   * @return the mask of changed buttons
+   */
+  public int getChangedMask() {
+    refresh();
+    return snapshot.buttons ^ previousButtons;
   }
 
   /**
-   * <> applies a deadzone to an input using the deadzone
-   * specified in the object
+   * <> get if any of the given buttons went down since the last snapshot
    *
-   * <p> the output of this functions can still be any number
-   * from 0 to 1 to allow very small outputs to still be achieved </p>
+   * @param mask the buttons to check (see {@link ButtonMask})
+   * @return if any of the buttons were pressed
+   */
+  public boolean wasPressed(int mask) {
+    return (getPressedMask() & mask) != 0;
+  }
+
+  /**
+   * <> get if any of the given buttons came up since the last snapshot
+   *
+   * @param mask the buttons to check (see {@link ButtonMask})
+   * @return if any of the buttons were released
+   */
+  public boolean wasReleased(int mask) {
+    return (getReleasedMask() & mask) != 0;
+  }
+
+  /**
+   * <> get if all of the given buttons have been down for both this
+   * snapshot and the last one
+   *
+   * @param mask the buttons to check (see {@link ButtonMask})
+   * @return if all of the buttons are held
+   */
+  public boolean isHeld(int mask) {
+    return (getHeldMask() & mask) == mask;
+  }
+
+  /**
+   * <> get if any of the given buttons changed state since the last snapshot
+   *
+   * @param mask the buttons to check (see {@link ButtonMask})
+   * @return if any of the buttons changed
+   */
+  public boolean hasChanged(int mask) {
+    return (getChangedMask() & mask) != 0;
+  }
+
+  /**
+   * <> starts playing a rumble pattern on its priority layer, replacing
+   * whatever was playing on that layer. doesn't allocate. calling
+   * setRumble directly goes around the patterns, so don't mix the two
+   *
+   * @param pattern the pattern to play
+   */
+  public void rumble(RumblePattern pattern) {
+    rumbleEngine.play(pattern, clock.getTimestamp());
+  }
+
+  /**
+   * <> stops the rumble pattern on a priority layer
+   *
+   * @param priority the layer to stop
+   */
+  public void stopRumble(int priority) {
+    rumbleEngine.stop(priority);
+  }
+
+  /** <> stops every rumble pattern */
+  public void stopRumble() {
+    rumbleEngine.stopAll();
+  }
+
+  /**
+   * <> gets a trigger that's true while all of the given buttons and d-pad
+   * directions are down. triggers are created the first time a mask is
+   * asked for and reused after that, and are only polled when the input
+   * changes (see {@link ChangeTrigger})
    *
-   * @param value the value to apply the deadzone to
-   * @return the value with the deadzone applied
+   * @param mask the buttons and d-pad directions (see {@link ButtonMask})
+   * @return the trigger
    */
-  private double applyDeadzone(double value) {
-    // <> apply the raw deadzone
-    double deadzoned = MathUtil.applyDeadband(value, deadzone);
+  public Trigger trigger(int mask) {
+    return bindings.get(mask);
+  }
+
+  /**
+   * <> gets the change-driven trigger for the A button
+   *
+   * @return the trigger
+   */
+  @Override
+  public Trigger a() {
+    return trigger(ButtonMask.kA);
+  }
+
+  /**
+   * <> gets the change-driven trigger for the B button
+   *
+   * @return the trigger
+   */
+  @Override
+  public Trigger b() {
+    return trigger(ButtonMask.kB);
+  }
+
+  /**
+   * <> gets the change-driven trigger for the X button
+   *
+   * @return the trigger
+   */
+  @Override
+  public Trigger x() {
+    return trigger(ButtonMask.kX);
+  }
+
+  /**
+   * <> gets the change-driven trigger for the Y button
+   *
+   * @return the trigger
+   */
+  @Override
+  public Trigger y() {
+    return trigger(ButtonMask.kY);
+  }
+
+  /**
+   * <> gets the change-driven trigger for the left bumper
+   *
+   * @return the trigger
+   */
+  @Override
+  public Trigger leftBumper() {
+    return trigger(ButtonMask.kLeftBumper);
+  }
 
-    // <> if raw deadzoning outputs 0, return 0 now
-    if (deadzoned == 0) {
-      return 0;
+  /**
+   * <> gets the change-driven trigger for the right bumper
+   *
+   * @return the trigger
+   */
+  @Override
+  public Trigger rightBumper() {
+    return trigger(ButtonMask.kRightBumper);
+  }
+
+  /**
+   * <> gets the change-driven trigger for the back button
+   *
+   * @return the trigger
+   */
+  @Override
+  public Trigger back() {
+    return trigger(ButtonMask.kBack);
+  }
+
+  /**
+   * <> gets the change-driven trigger for the start button
+   *
+   * @return the trigger
+   */
+  @Override
+  public Trigger start() {
+    return trigger(ButtonMask.kStart);
+  }
+
+  /**
+   * <> gets the change-driven trigger for the left stick button
+   *
+   * @return the trigger
+   */
+  @Override
+  public Trigger leftStick() {
+    return trigger(ButtonMask.kLeftStick);
+  }
+
+  /**
+   * <> gets the change-driven trigger for the right stick button
+   *
+   * @return the trigger
+   */
+  @Override
+  public Trigger rightStick() {
+    return trigger(ButtonMask.kRightStick);
+  }
+
+  /**
+   * <> gets the change-driven trigger for a button by its DriverStation number
+   *
+   * @param button the button number, starting at 1
+   * @return the trigger
+   */
+  @Override
+  public Trigger button(int button) {
+    // <> buttons past the 16th would land on the d-pad bits, so leave those polled
+    if (button < 1 || button > ButtonMask.kPOVShift) {
+      return super.button(button);
     }
 
-    // <> the code now needs to take the output with an absolute value between the
-    // deadzone and 1 and remap it so that its absolute value can be between 0
-    // and 1. this looks complicated but that's just because the ranges have to be in the
-    // negative numbers if the deadzoned value is negative
-    int multiplier = deadzoned > 0 ? 1 : -1;
-    return remap(deadzoned, deadzone * multiplier, multiplier, 0, multiplier);
+    return trigger(1 << (button - 1));
   }
 
   /**
-   * <> curves a given input
+   * <> gets the change-driven trigger for a d-pad direction. povUp(),
+   * povDownLeft(), and the rest all go through this
    *
-   * @param value the value before the curve
-   * @return the value curved
+   * @param angle the angle in degrees, a multiple of 45
+   * @return the trigger
    */
-  private double applyCurve(double value) {
-    double term1 = coefficient1 * Math.pow(value, exponent1);
-    double term2 = coefficient2 * Math.pow(value, exponent2);
+  @Override
+  public Trigger pov(int angle) {
+    // <> "not pressed" and angles between directions can't be written as a mask
+    if (angle < 0 || angle >= 360 || angle % 45 != 0) {
+      return super.pov(angle);
+    }
 
-    return term1 + term2;
+    return trigger(ButtonMask.of(POVDirection.fromAngle(angle)));
   }
 
   /**
-   * <> apply the left and right trigger multipliers
+   * <> gets a polled trigger for a button that reads whichever port is
+   * active, so it keeps working after failing over. the change-driven
+   * triggers above are cheaper where they apply
    *
-   * @param value                  the value before having the multipliers applied
-   * @param leftTriggerMultiplier  the multiplier that will be applied if the left trigger is pressed fully
-   * @param rightTriggerMultiplier the multiplier that will be applied if the right trigger is pressed fully
-   * @return the value with trigger multipliers applied
+   * @param button the button number, starting at 1
+   * @param loop   the loop to poll the trigger on
+   * @return the trigger
    */
-  private double applyTriggerMultipliers(double value, double leftTriggerMultiplier, double rightTriggerMultiplier) {
-    // get the amounts we need to multiply the raw value by (take the trigger input and
-    // use it to linearly interpolate between 1 and the multiplier for the trigger)
-    double realLeftTriggerMultiplier = remap(getLeftTriggerAxis(), 0, 1, 1, leftTriggerMultiplier);
-    double realRightTriggerMultiplier = remap(getRightTriggerAxis(), 0, 1, 1, rightTriggerMultiplier);
+  @Override
+  public Trigger button(int button, EventLoop loop) {
+    return new Trigger(loop, () -> DriverStation.getStickButton(port, button));
+  }
 
-    return value * realLeftTriggerMultiplier * realRightTriggerMultiplier;
+  /**
+   * <> gets a polled trigger for a pov angle that reads whichever port is active
+   *
+   * @param pov   the index of the pov to read
+   * @param angle the angle in degrees, or -1 for not pressed
+   * @param loop  the loop to poll the trigger on
+   * @return the trigger
+   */
+  @Override
+  public Trigger pov(int pov, int angle, EventLoop loop) {
+    return new Trigger(loop, () -> DriverStation.getStickPOV(port, pov) == angle);
   }
 
   /**
-   * <> applies deadzoning, curve, and trigger multipliers to a raw input
+   * <> gets a polled trigger for an axis being below a threshold that
+   * reads whichever port is active
    *
-   * @param value                  the raw input from the joystick
-   * @param leftTriggerMultiplier  the left trigger output multiplier for the axis being calculated
-   * @param rightTriggerMultiplier the right trigger output multiplier for the axis being calculated
-   * @return the raw input after being deadzoned, curved, and having trigger multipliers applied
-   * @apiNote does not do any rate limiting
+   * @param axis      the axis to read
+   * @param threshold the value the axis has to be below
+   * @param loop      the loop to poll the trigger on
+   * @return the trigger
    */
-  private double composeJoystickFunctions(double value, double leftTriggerMultiplier, double rightTriggerMultiplier) {
-    double withDeadzone = applyDeadzone(value);
-    double withCurve = applyCurve(withDeadzone);
-    double withMultipliers = applyTriggerMultipliers(withCurve, leftTriggerMultiplier, rightTriggerMultiplier);
+  @Override
+  public Trigger axisLessThan(int axis, double threshold, EventLoop loop) {
+    return new Trigger(loop, () -> getRawAxis(axis) < threshold);
+  }
 
-    return withMultipliers;
+  /**
+   * <> gets a polled trigger for an axis being above a threshold that
+   * reads whichever port is active
+   *
+   * @param axis      the axis to read
+   * @param threshold the value the axis has to be above
+   * @param loop      the loop to poll the trigger on
+   * @return the trigger
+   */
+  @Override
+  public Trigger axisGreaterThan(int axis, double threshold, EventLoop loop) {
+    return new Trigger(loop, () -> getRawAxis(axis) > threshold);
+  }
+
+  @Override
+  public Trigger leftTrigger(double threshold, EventLoop loop) {
+    return axisGreaterThan(XboxController.Axis.kLeftTrigger.value, threshold, loop);
+  }
+
+  @Override
+  public Trigger rightTrigger(double threshold, EventLoop loop) {
+    return axisGreaterThan(XboxController.Axis.kRightTrigger.value, threshold, loop);
+  }
+
+  @Override
+  public Trigger a(EventLoop loop) {
+    return button(XboxController.Button.kA.value, loop);
+  }
+
+  @Override
+  public Trigger b(EventLoop loop) {
+    return button(XboxController.Button.kB.value, loop);
+  }
+
+  @Override
+  public Trigger x(EventLoop loop) {
+    return button(XboxController.Button.kX.value, loop);
+  }
+
+  @Override
+  public Trigger y(EventLoop loop) {
+    return button(XboxController.Button.kY.value, loop);
+  }
+
+  @Override
+  public Trigger leftBumper(EventLoop loop) {
+    return button(XboxController.Button.kLeftBumper.value, loop);
+  }
+
+  @Override
+  public Trigger rightBumper(EventLoop loop) {
+    return button(XboxController.Button.kRightBumper.value, loop);
+  }
+
+  @Override
+  public Trigger back(EventLoop loop) {
+    return button(XboxController.Button.kBack.value, loop);
+  }
+
+  @Override
+  public Trigger start(EventLoop loop) {
+    return button(XboxController.Button.kStart.value, loop);
+  }
+
+  @Override
+  public Trigger leftStick(EventLoop loop) {
+    return button(XboxController.Button.kLeftStick.value, loop);
+  }
+
+  @Override
+  public Trigger rightStick(EventLoop loop) {
+    return button(XboxController.Button.kRightStick.value, loop);
   }
 
   /**
-   * <> simple (but very useful) math function that remaps a value from
-   * one range of numbers to another range of numbers
+   * <> reads an axis from whichever port is active, skipping the snapshot
    *
-   * @param value the value to remap
-   * @param low1  the lower bound of the range to map from
-   * @param high1 the upper bound of the range to map from
-   * @param low2  the lower bound of the range to map to
-   * @param high2 the upper bound of the range to map to
-   * @return the remapped value
+   * @param axis the axis to read
+   * @return the raw value of the axis
    */
-  private double remap(double value, double low1, double high1, double low2, double high2) {
-    double range1Size = high1 - low1;
-    double range2Size = high2 - low2;
-    double percentIntoRange1 = (value - low1) / range1Size;
+  @Override
+  public double getRawAxis(int axis) {
+    return DriverStation.getStickAxis(port, axis);
+  }
 
-    return low2 + range2Size * percentIntoRange1;
+  /**
+   * <> gets a trigger for a chord: every button in the mask pressed within
+   * 150ms of each other. true until one of them is let go
+   *
+   * @param mask the buttons and d-pad directions (see {@link ButtonMask})
+   * @return the trigger
+   */
+  public Trigger chord(int mask) {
+    return chord(mask, 0.15);
+  }
+
+  /**
+   * <> gets a trigger for a chord: every button in the mask pressed within
+   * a window of each other. true until one of them is let go
+   *
+   * @param mask          the buttons and d-pad directions (see {@link ButtonMask})
+   * @param windowSeconds the most time allowed between the first and last press
+   * @return the trigger
+   */
+  public Trigger chord(int mask, double windowSeconds) {
+    return gestures.chord(mask, windowSeconds);
+  }
+
+  /**
+   * <> gets a trigger for a double tap: the mask pressed twice within
+   * 300ms. true until the second press is let go
+   *
+   * @param mask the buttons and d-pad directions (see {@link ButtonMask})
+   * @return the trigger
+   */
+  public Trigger doubleTap(int mask) {
+    return doubleTap(mask, 0.3);
+  }
+
+  /**
+   * <> gets a trigger for a double tap: the mask pressed twice within a
+   * window. true until the second press is let go
+   *
+   * @param mask          the buttons and d-pad directions (see {@link ButtonMask})
+   * @param windowSeconds the most time allowed between the two presses
+   * @return the trigger
+   */
+  public Trigger doubleTap(int mask, double windowSeconds) {
+    return gestures.doubleTap(mask, windowSeconds);
+  }
+
+  /**
+   * <> gets a trigger for a long hold: the mask held down for a while.
+   * true until it's let go
+   *
+   * @param mask        the buttons and d-pad directions (see {@link ButtonMask})
+   * @param holdSeconds how long the mask has to be held
+   * @return the trigger
+   */
+  public Trigger hold(int mask, double holdSeconds) {
+    return gestures.hold(mask, holdSeconds);
+  }
+
+  /**
+   * <> gets a trigger for a sequence: each mask pressed one after another,
+   * with nothing else pressed in between and all within a window. true
+   * until the last one is let go
+   *
+   * @param windowSeconds the most time allowed between the first and last press
+   * @param steps         the masks in the order they have to be pressed (see {@link ButtonMask})
+   * @return the trigger
+   */
+  public Trigger sequence(double windowSeconds, int... steps) {
+    return gestures.sequence(windowSeconds, steps);
+  }
+
+  /**
+   * <> runs the change-driven triggers if the input changed since they
+   * last ran, and checks for gestures
+   */
+  private void dispatchBindings() {
+    int inputMask = getInputMask();
+    bindings.dispatch(inputMask);
+    gestures.update(inputMask, snapshot.timestamp);
+  }
+
+  /**
+   * <> gets a button from the snapshot
+   *
+   * @param button the button to get
+   * @return if the button is pressed
+   */
+  private boolean getButton(XboxController.Button button) {
+    return (getButtonMask() & ButtonMask.of(button)) != 0;
   }
 }
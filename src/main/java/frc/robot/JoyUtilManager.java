@@ -0,0 +1,292 @@
+package frc.robot;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.XboxController;
+
+/**
+ * <> samples and processes several {@link JoyUtil}s in one pass
+ *
+ * <p> Instead of every controller reading and processing itself, the
+ * manager keeps the raw axes, trigger axes, button masks, povs, trigger
+ * multipliers, and the configuration and state of every
+ * {@link AxisPipeline} stage of every controller in parallel primitive
+ * arrays. Once per robot loop it reads every port, then runs the
+ * pipeline's static stage kernels as one tight loop over every axis of
+ * every controller with a single clock read, and hands each result back to
+ * its {@link JoyUtil}. </p>
+ *
+ * <p> The stage state (filter, prediction, and rate limit) is copied out
+ * of each controller's own pipelines when the manager is created, so
+ * nothing jumps when it takes over. From then on the manager owns it and
+ * the controllers' pipelines aren't advanced anymore. </p>
+ *
+ * <p> The {@link JoyUtil}s passed in keep working exactly as before (every
+ * getter, {@link ButtonMask} query, and trigger still works), they just
+ * stop reading the controller themselves. Each controller's
+ * {@link TuningProfile} is picked up at the start of every pass, so
+ * profiles can still be swapped while managed. The per-axis getters take the
+ * manager's output, while the stick vector getters still process on their
+ * own from the managed snapshot. {@link #update()} has to be called from
+ * robotPeriodic before CommandScheduler.run(), in place of the managed
+ * controllers' own {@link JoyUtil#periodic()}. Each controller's triggers,
+ * rumble, shared state bus, and analytics run once, right after its new
+ * sample has been handed over. </p>
+ *
+ * <p> Background sampling is stopped on every controller taken over.
+ * Background sampling, recording, replaying, and profiling aren't
+ * supported on a managed controller, and throw. </p>
+ */
+public final class JoyUtilManager {
+  private static final int axesPerController = 4;
+  private static final int leftX = 0, leftY = 1, rightX = 2, rightY = 3;
+
+  private final JoyUtil[] controllers;
+  private final JoyClock clock;
+  private final TuningProfile[] profiles;
+  private final CurveEngine[] curveEngines;
+
+  // <> per controller
+  private final double[] leftTriggers, rightTriggers;
+  private final int[] buttons, povs;
+
+  // <> per axis, indexed by controller * axesPerController + axis
+  private final double[] raw;
+  private final double[] leftTriggerMultipliers, rightTriggerMultipliers;
+
+  // <> pipeline stage configuration per axis
+  private final double[] expos;
+  private final boolean[] inverted;
+  private final double[] lowPassTimeConstants;
+  private final double[] predictionLeads, predictionAlphas, predictionBetas;
+  private final double[] rateLimits;
+
+  // <> pipeline stage state per axis
+  private final double[] filtered;
+  private final double[] estimates, velocities;
+  private final boolean[] hasEstimates;
+  private final double[] outputs;
+  private final boolean[] rateLimited;
+
+  private double previousTime = Double.NaN;
+  private double timestamp;
+
+  private final InputSnapshot handoff = new InputSnapshot();
+  private final StickVector handoffLeft = new StickVector();
+  private final StickVector handoffRight = new StickVector();
+
+  /**
+   * <> creates a new {@link JoyUtilManager} that takes over sampling and
+   * processing of the given controllers
+   *
+   * @param controllers the controllers to manage
+   * @throws IllegalStateException if a controller is recording, replaying, or profiling
+   */
+  public JoyUtilManager(JoyUtil... controllers) {
+    this(JoyClock.kRealTime, controllers);
+  }
+
+  /**
+   * <> creates a new {@link JoyUtilManager} that takes over sampling and
+   * processing of the given controllers
+   *
+   * @param clock       where to get the time of each pass
+   * @param controllers the controllers to manage
+   * @throws IllegalStateException if a controller is recording, replaying, or profiling
+   */
+  public JoyUtilManager(JoyClock clock, JoyUtil... controllers) {
+    this.clock = clock;
+    this.controllers = controllers.clone();
+
+    // <> done first, so a background sampler is stopped before its pipelines get copied
+    for (JoyUtil joyUtil : this.controllers) {
+      joyUtil.setManaged(true);
+    }
+
+    int count = controllers.length;
+    profiles = new TuningProfile[count];
+    curveEngines = new CurveEngine[count];
+    leftTriggers = new double[count];
+    rightTriggers = new double[count];
+    buttons = new int[count];
+    povs = new int[count];
+
+    int axes = count * axesPerController;
+    raw = new double[axes];
+    leftTriggerMultipliers = new double[axes];
+    rightTriggerMultipliers = new double[axes];
+
+    expos = new double[axes];
+    inverted = new boolean[axes];
+    lowPassTimeConstants = new double[axes];
+    predictionLeads = new double[axes];
+    predictionAlphas = new double[axes];
+    predictionBetas = new double[axes];
+    rateLimits = new double[axes];
+
+    filtered = new double[axes];
+    estimates = new double[axes];
+    velocities = new double[axes];
+    hasEstimates = new boolean[axes];
+    outputs = new double[axes];
+    rateLimited = new boolean[axes];
+
+    for (int controller = 0; controller < count; controller++) {
+      JoyUtil joyUtil = controllers[controller];
+
+      int base = controller * axesPerController;
+      takeOver(base + leftX, joyUtil.getLeftXPipeline());
+      takeOver(base + leftY, joyUtil.getLeftYPipeline());
+      takeOver(base + rightX, joyUtil.getRightXPipeline());
+      takeOver(base + rightY, joyUtil.getRightYPipeline());
+    }
+  }
+
+  /** <> copies the stages and state of a controller's pipeline into the arrays */
+  private void takeOver(int index, AxisPipeline pipeline) {
+    expos[index] = pipeline.getExpo();
+    inverted[index] = pipeline.isInverted();
+    lowPassTimeConstants[index] = pipeline.getLowPassTimeConstant();
+    predictionLeads[index] = pipeline.getPredictionLead();
+    predictionAlphas[index] = pipeline.getPredictionAlpha();
+    predictionBetas[index] = pipeline.getPredictionBeta();
+    rateLimits[index] = pipeline.getRateLimit();
+
+    filtered[index] = pipeline.getFiltered();
+    estimates[index] = pipeline.getEstimate();
+    velocities[index] = pipeline.getVelocity();
+    hasEstimates[index] = pipeline.hasEstimate();
+    outputs[index] = pipeline.getOutput();
+  }
+
+  /**
+   * <> samples, processes, and hands out new input for every controller.
+   * call this from robotPeriodic before CommandScheduler.run()
+   */
+  public void update() {
+    sample();
+    process();
+    handOff();
+  }
+
+  /**
+   * <> gets one of the managed controllers
+   *
+   * @param index the position of the controller in the constructor arguments
+   * @return the controller
+   */
+  public JoyUtil get(int index) {
+    return controllers[index];
+  }
+
+  /**
+   * <> gets the number of managed controllers
+   *
+   * @return the number of controllers
+   */
+  public int size() {
+    return controllers.length;
+  }
+
+  private void sample() {
+    timestamp = clock.getTimestamp();
+
+    for (int controller = 0; controller < controllers.length; controller++) {
+      // <> re-read every pass, since the controller may have failed over to its backup port
+      int port = controllers[controller].getPort();
+      int base = controller * axesPerController;
+
+      // <> only reload the multipliers when the profile has actually been swapped
+      TuningProfile profile = controllers[controller].getTuningProfile();
+      if (profiles[controller] != profile) {
+        loadProfile(controller, profile);
+      }
+
+      raw[base + leftX] = DriverStation.getStickAxis(port, XboxController.Axis.kLeftX.value);
+      raw[base + leftY] = DriverStation.getStickAxis(port, XboxController.Axis.kLeftY.value);
+      raw[base + rightX] = DriverStation.getStickAxis(port, XboxController.Axis.kRightX.value);
+      raw[base + rightY] = DriverStation.getStickAxis(port, XboxController.Axis.kRightY.value);
+      leftTriggers[controller] = DriverStation.getStickAxis(port, XboxController.Axis.kLeftTrigger.value);
+      rightTriggers[controller] = DriverStation.getStickAxis(port, XboxController.Axis.kRightTrigger.value);
+      buttons[controller] = DriverStation.getStickButtons(port);
+      povs[controller] = DriverStation.getStickPOV(port, 0);
+    }
+  }
+
+  private void loadProfile(int controller, TuningProfile profile) {
+    int base = controller * axesPerController;
+    profiles[controller] = profile;
+    curveEngines[controller] = profile.getCurveEngine();
+
+    leftTriggerMultipliers[base + leftX] = profile.getLeftTriggerLeftStickMultiplier();
+    leftTriggerMultipliers[base + leftY] = profile.getLeftTriggerLeftStickMultiplier();
+    leftTriggerMultipliers[base + rightX] = profile.getLeftTriggerRightStickMultiplier();
+    leftTriggerMultipliers[base + rightY] = profile.getLeftTriggerRightStickMultiplier();
+    rightTriggerMultipliers[base + leftX] = profile.getRightTriggerLeftStickMultiplier();
+    rightTriggerMultipliers[base + leftY] = profile.getRightTriggerLeftStickMultiplier();
+    rightTriggerMultipliers[base + rightX] = profile.getRightTriggerRightStickMultiplier();
+    rightTriggerMultipliers[base + rightY] = profile.getRightTriggerRightStickMultiplier();
+  }
+
+  private void process() {
+    // <> every axis shares the one timestamp read in sample(). the first
+    // pass has nothing to compare against, and time never runs backwards
+    // (see AxisPipeline), so nothing moves
+    double elapsedTime = Double.isNaN(previousTime) ? 0 : Math.max(timestamp - previousTime, 0);
+    previousTime = timestamp;
+
+    for (int index = 0; index < raw.length; index++) {
+      int controller = index / axesPerController;
+
+      double shaped = AxisPipeline.shape(curveEngines[controller].apply(raw[index]), expos[index]);
+      double value = AxisPipeline.scale(JoyMath.applyTriggerMultipliers(shaped, leftTriggers[controller],
+        rightTriggers[controller], leftTriggerMultipliers[index], rightTriggerMultipliers[index]), inverted[index]);
+
+      if (lowPassTimeConstants[index] != 0) {
+        filtered[index] = AxisPipeline.lowPass(value, filtered[index], lowPassTimeConstants[index], elapsedTime);
+        value = filtered[index];
+      }
+
+      if (predictionLeads[index] != 0) {
+        if (!hasEstimates[index]) {
+          estimates[index] = value;
+          velocities[index] = 0;
+          hasEstimates[index] = true;
+        } else if (elapsedTime > 0) {
+          double velocity = AxisPipeline.predictVelocity(value, estimates[index], velocities[index],
+            predictionBetas[index], elapsedTime);
+          estimates[index] = AxisPipeline.predictEstimate(value, estimates[index], velocities[index],
+            predictionAlphas[index], elapsedTime);
+          velocities[index] = velocity;
+        }
+
+        value = AxisPipeline.extrapolate(value, estimates[index], velocities[index], predictionLeads[index]);
+      }
+
+      rateLimited[index] = AxisPipeline.isLimited(value, outputs[index], rateLimits[index], elapsedTime);
+      outputs[index] = AxisPipeline.limit(value, outputs[index], rateLimits[index], elapsedTime);
+    }
+  }
+
+  private void handOff() {
+    for (int controller = 0; controller < controllers.length; controller++) {
+      int base = controller * axesPerController;
+
+      handoff.leftX = raw[base + leftX];
+      handoff.leftY = raw[base + leftY];
+      handoff.rightX = raw[base + rightX];
+      handoff.rightY = raw[base + rightY];
+      handoff.leftTrigger = leftTriggers[controller];
+      handoff.rightTrigger = rightTriggers[controller];
+      handoff.buttons = buttons[controller];
+      handoff.pov = povs[controller];
+      handoff.timestamp = timestamp;
+
+      handoffLeft.set(outputs[base + leftX], outputs[base + leftY]);
+      handoffRight.set(outputs[base + rightX], outputs[base + rightY]);
+      controllers[controller].loadProcessedSample(handoff, handoffLeft, handoffRight);
+      controllers[controller].setManagedRateLimited(rateLimited[base + leftX] || rateLimited[base + leftY],
+        rateLimited[base + rightX] || rateLimited[base + rightY]);
+      controllers[controller].finishCycle();
+    }
+  }
+}
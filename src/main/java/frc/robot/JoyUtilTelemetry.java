@@ -0,0 +1,108 @@
+package frc.robot;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * <> publishes a {@link JoyUtil}'s state to NetworkTables through two typed
+ * publishers that are created once, instead of a separate keyed put for
+ * every value every cycle
+ *
+ * <p> "JoyUtil/[name]/state" is a double array of the processed left x,
+ * left y, right x, right y, then the raw left x, left y, right x, right y,
+ * left trigger, and right trigger. "JoyUtil/[name]/input" is the input
+ * mask from {@link JoyUtil#getInputMask()} (see {@link ButtonMask}). Each
+ * is only published when it has changed. </p>
+ */
+public final class JoyUtilTelemetry implements AutoCloseable {
+  private static final int stateLength = 10;
+
+  private final JoyUtil joyUtil;
+  private final int decimation;
+  private final DoubleArrayPublisher statePublisher;
+  private final IntegerPublisher inputPublisher;
+
+  private final InputSnapshot raw = new InputSnapshot();
+  private final double[] state = new double[stateLength];
+  private final double[] publishedState = new double[stateLength];
+  private long publishedInput = -1;
+  private boolean hasPublishedState;
+  private int cyclesUntilPublish;
+
+  /**
+   * <> creates a new {@link JoyUtilTelemetry} that checks for changes every cycle
+   *
+   * @param joyUtil the controller to publish
+   * @param name    the name of the controller's table under "JoyUtil"
+   */
+  public JoyUtilTelemetry(JoyUtil joyUtil, String name) {
+    this(joyUtil, name, 1);
+  }
+
+  /**
+   * <> creates a new {@link JoyUtilTelemetry}
+   *
+   * @param joyUtil    the controller to publish
+   * @param name       the name of the controller's table under "JoyUtil"
+   * @param decimation only check for changes every this many cycles (1 is every cycle)
+   */
+  public JoyUtilTelemetry(JoyUtil joyUtil, String name, int decimation) {
+    this.joyUtil = joyUtil;
+    this.decimation = Math.max(decimation, 1);
+
+    NetworkTable table = NetworkTableInstance.getDefault().getTable("JoyUtil").getSubTable(name);
+    statePublisher = table.getDoubleArrayTopic("state").publish();
+    inputPublisher = table.getIntegerTopic("input").publish();
+  }
+
+  /** <> publishes anything that's changed. call once per cycle */
+  public void periodic() {
+    if (--cyclesUntilPublish > 0) {
+      return;
+    }
+
+    cyclesUntilPublish = decimation;
+
+    joyUtil.getSnapshot(raw);
+    state[0] = joyUtil.getLeftX();
+    state[1] = joyUtil.getLeftY();
+    state[2] = joyUtil.getRightX();
+    state[3] = joyUtil.getRightY();
+    state[4] = raw.leftX;
+    state[5] = raw.leftY;
+    state[6] = raw.rightX;
+    state[7] = raw.rightY;
+    state[8] = raw.leftTrigger;
+    state[9] = raw.rightTrigger;
+
+    if (!hasPublishedState || !sameState()) {
+      statePublisher.set(state);
+      System.arraycopy(state, 0, publishedState, 0, stateLength);
+      hasPublishedState = true;
+    }
+
+    long input = joyUtil.getInputMask();
+    if (input != publishedInput) {
+      inputPublisher.set(input);
+      publishedInput = input;
+    }
+  }
+
+  private boolean sameState() {
+    for (int i = 0; i < stateLength; i++) {
+      if (state[i] != publishedState[i]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public void close() {
+    statePublisher.close();
+    inputPublisher.close();
+  }
+}
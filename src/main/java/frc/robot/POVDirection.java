@@ -0,0 +1,89 @@
+package frc.robot;
+
+/**
+ * <> every state the d-pad can be in, along with its x and y axis values
+ * (cos and sin of the pov angle) so that decoding a pov reading is just
+ * one table lookup
+ *
+ * <p> the pressed directions are declared in order of angle, which
+ * {@link #fromAngle(int)} and {@link ButtonMask} both rely on </p>
+ */
+public enum POVDirection {
+  kUp(0, 0, 1),
+  kUpRight(45, Diagonal.sqrt2Over2, Diagonal.sqrt2Over2),
+  kRight(90, 1, 0),
+  kDownRight(135, Diagonal.sqrt2Over2, -Diagonal.sqrt2Over2),
+  kDown(180, 0, -1),
+  kDownLeft(225, -Diagonal.sqrt2Over2, -Diagonal.sqrt2Over2),
+  kLeft(270, -1, 0),
+  kUpLeft(315, -Diagonal.sqrt2Over2, Diagonal.sqrt2Over2),
+  kNone(-1, 0, 0);
+
+  // <> enum constants can't use the enum's own static fields, so this lives in a holder
+  private static final class Diagonal {
+    private static final double sqrt2Over2 = Math.sqrt(2) / 2;
+  }
+
+  // <> indexed by angle / 45, with the released state last
+  private static final POVDirection[] table = values();
+
+  private final int angle;
+  private final double x, y;
+
+  POVDirection(int angle, double x, double y) {
+    this.angle = angle;
+    this.x = x;
+    this.y = y;
+  }
+
+  /**
+   * <> decodes a pov reading
+   *
+   * @param angle the pov angle in degrees, or -1 if the d-pad isn't pressed
+   * @return the matching direction
+   */
+  public static POVDirection fromAngle(int angle) {
+    if (angle < 0) {
+      return kNone;
+    }
+
+    // <> round to the nearest 45 degrees and wrap 360 back around to 0
+    return table[((angle + 22) / 45) & 7];
+  }
+
+  /**
+   * <> gets the pov angle of the direction
+   *
+   * @return the angle in degrees, or -1 if the d-pad isn't pressed
+   */
+  public int getAngle() {
+    return angle;
+  }
+
+  /**
+   * <> gets the d-pad x-axis value of the direction (cos of pov angle)
+   *
+   * @return the value
+   */
+  public double getX() {
+    return x;
+  }
+
+  /**
+   * <> gets the d-pad y-axis value of the direction (sin of pov angle)
+   *
+   * @return the value
+   */
+  public double getY() {
+    return y;
+  }
+
+  /**
+   * <> gets if the d-pad is pressed in this direction
+   *
+   * @return if the d-pad is pressed
+   */
+  public boolean isPressed() {
+    return this != kNone;
+  }
+}
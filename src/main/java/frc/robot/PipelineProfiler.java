@@ -0,0 +1,188 @@
+package frc.robot;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * <> opt-in timing and allocation instrumentation for {@link JoyUtil}'s
+ * pipeline, turned on with {@link JoyUtil#setProfiler(PipelineProfiler)}
+ *
+ * <p> Every stage gets a fixed bucket histogram of how many nanoseconds
+ * it took (four buckets per power of two, so percentiles are within about
+ * 25%), along with a call count and the max. Recording never allocates.
+ * Bytes allocated on the calling thread inside the pipeline are counted
+ * too, using the JVM's per-thread allocation counter. </p>
+ *
+ * <p> Every so many cycles the p50, p99, and max of each stage are
+ * published to "JoyUtil/[name]/profile/[stage]" as a double array of
+ * calls, p50, p99, and max (in nanoseconds), and the histograms start
+ * over. Bytes allocated over the same window go to
+ * "JoyUtil/[name]/profile/allocatedBytes". </p>
+ */
+public final class PipelineProfiler implements AutoCloseable {
+  public static final int kHIDRead = 0;
+  public static final int kCurve = 1;
+  public static final int kTriggerMultipliers = 2;
+  public static final int kRateLimit = 3;
+  public static final int kFilter = 4;
+  private static final String[] stageNames = {"hidRead", "curve", "triggerMultipliers", "rateLimit",
+    "filter"};
+
+  private static final int subBucketBits = 2;
+  private static final int subBuckets = 1 << subBucketBits;
+  private static final int bucketCount = 40 * subBuckets;
+
+  private final long[][] buckets = new long[stageNames.length][bucketCount];
+  private final long[] calls = new long[stageNames.length];
+  private final long[] maxNanos = new long[stageNames.length];
+
+  private final com.sun.management.ThreadMXBean threadBean;
+  private final long allocationOverhead;
+  private long allocatedBytes;
+
+  private final int publishPeriod;
+  private int cyclesUntilPublish;
+  private final DoubleArrayPublisher[] stagePublishers = new DoubleArrayPublisher[stageNames.length];
+  private final IntegerPublisher allocatedBytesPublisher;
+  private final double[] stageResult = new double[4];
+
+  /**
+   * <> creates a new {@link PipelineProfiler}
+   *
+   * @param name          the name of the controller's table under "JoyUtil"
+   * @param publishPeriod how many cycles to collect before publishing results
+   */
+  public PipelineProfiler(String name, int publishPeriod) {
+    this.publishPeriod = Math.max(publishPeriod, 1);
+    this.cyclesUntilPublish = this.publishPeriod;
+
+    NetworkTable table = NetworkTableInstance.getDefault().getTable("JoyUtil").getSubTable(name)
+      .getSubTable("profile");
+    for (int i = 0; i < stageNames.length; i++) {
+      stagePublishers[i] = table.getDoubleArrayTopic(stageNames[i]).publish();
+    }
+    allocatedBytesPublisher = table.getIntegerTopic("allocatedBytes").publish();
+
+    // <> reading the allocation counter can allocate a little by itself on
+    // some JVMs, so measure how much and take it back off of every reading
+    threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long overhead = Long.MAX_VALUE;
+    for (int i = 0; i < 16; i++) {
+      long start = currentAllocatedBytes();
+      overhead = Math.min(overhead, currentAllocatedBytes() - start);
+    }
+    allocationOverhead = overhead;
+  }
+
+  /**
+   * <> records how long a stage took
+   *
+   * @param stage the stage (one of the stage constants)
+   * @param nanos how long it took in nanoseconds
+   */
+  public void record(int stage, long nanos) {
+    buckets[stage][bucketOf(nanos)]++;
+    calls[stage]++;
+    maxNanos[stage] = Math.max(maxNanos[stage], nanos);
+  }
+
+  /**
+   * <> gets the current thread's allocation counter, to be passed to
+   * {@link #recordAllocation(long)} once the measured section is done
+   *
+   * @return the bytes allocated by the current thread so far
+   */
+  public long currentAllocatedBytes() {
+    return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * <> adds the bytes allocated on the current thread since a reading
+   *
+   * @param startBytes a reading from {@link #currentAllocatedBytes()}
+   */
+  public void recordAllocation(long startBytes) {
+    allocatedBytes += Math.max(currentAllocatedBytes() - startBytes - allocationOverhead, 0);
+  }
+
+  /**
+   * <> gets a percentile of a stage's timings since the last publish
+   *
+   * @param stage      the stage (one of the stage constants)
+   * @param percentile the percentile, from 0 to 1
+   * @return the upper bound of the bucket the percentile falls in, in nanoseconds
+   */
+  public long getPercentile(int stage, double percentile) {
+    long target = (long) Math.ceil(calls[stage] * percentile);
+    long seen = 0;
+    for (int i = 0; i < bucketCount; i++) {
+      seen += buckets[stage][i];
+      if (seen >= target && seen > 0) {
+        return Math.min(upperBoundOf(i), maxNanos[stage]);
+      }
+    }
+
+    return 0;
+  }
+
+  /** <> publishes and resets the results once enough cycles have gone by. call once per cycle */
+  public void periodic() {
+    if (--cyclesUntilPublish > 0) {
+      return;
+    }
+
+    cyclesUntilPublish = publishPeriod;
+
+    for (int stage = 0; stage < stageNames.length; stage++) {
+      stageResult[0] = calls[stage];
+      stageResult[1] = getPercentile(stage, 0.5);
+      stageResult[2] = getPercentile(stage, 0.99);
+      stageResult[3] = maxNanos[stage];
+      stagePublishers[stage].set(stageResult);
+
+      Arrays.fill(buckets[stage], 0);
+      calls[stage] = 0;
+      maxNanos[stage] = 0;
+    }
+
+    allocatedBytesPublisher.set(allocatedBytes);
+    allocatedBytes = 0;
+  }
+
+  /**
+   * <> finds the bucket for a time. values under 4 get their own bucket,
+   * everything else is split by its highest bit and the two bits below it
+   */
+  private static int bucketOf(long nanos) {
+    if (nanos < subBuckets) {
+      return (int) Math.max(nanos, 0);
+    }
+
+    int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    int subBucket = (int) (nanos >>> (exponent - subBucketBits)) & (subBuckets - 1);
+    return Math.min(exponent * subBuckets + subBucket, bucketCount - 1);
+  }
+
+  private static long upperBoundOf(int bucket) {
+    if (bucket < subBuckets) {
+      return bucket;
+    }
+
+    int exponent = bucket / subBuckets;
+    int subBucket = bucket % subBuckets;
+    return ((long) (subBuckets + subBucket + 1) << (exponent - subBucketBits)) - 1;
+  }
+
+  @Override
+  public void close() {
+    for (DoubleArrayPublisher publisher : stagePublishers) {
+      publisher.close();
+    }
+    allocatedBytesPublisher.close();
+  }
+}
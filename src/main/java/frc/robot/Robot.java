@@ -4,12 +4,18 @@
 
 package frc.robot;
 
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import frc.robot.Constants.JoyUtilConstants;
 import frc.robot.Constants.OperatorConstants;
 
+import java.io.IOException;
+import java.util.Map;
+
 /**
  * The VM is configured to automatically run this class, and to call the functions corresponding to
  * each mode, as described in the TimedRobot documentation. If you change the name of this class or
@@ -18,6 +24,9 @@ import frc.robot.Constants.OperatorConstants;
  */
 public class Robot extends TimedRobot {
   private JoyUtil joyUtil;
+  private JoyUtilTelemetry joyUtilTelemetry;
+  private final DriverAnalytics driverAnalytics = new DriverAnalytics();
+  private final SendableChooser<TuningProfile> tuningProfileChooser = new SendableChooser<>();
 
   /**
    * This function is run when the robot is first started up and should be used for any
@@ -25,11 +34,26 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotInit() {
-    joyUtil = new JoyUtil(OperatorConstants.kDriverControllerPort, JoyUtilConstants.kDeadzone,
-      JoyUtilConstants.kRateLimitLeft, JoyUtilConstants.kRateLimitRight, JoyUtilConstants.exponent1,
-      JoyUtilConstants.exponent2, JoyUtilConstants.coeff1, JoyUtilConstants.coeff2,
+    TuningProfile defaultProfile = new TuningProfile("constants", JoyUtilConstants.kDeadzone,
+      JoyUtilConstants.exponent1, JoyUtilConstants.exponent2, JoyUtilConstants.coeff1, JoyUtilConstants.coeff2,
       JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier,
       JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier);
+
+    joyUtil = new JoyUtil(OperatorConstants.kDriverControllerPort, defaultProfile,
+      JoyUtilConstants.kRateLimitLeft, JoyUtilConstants.kRateLimitRight);
+
+    // <> every profile in deploy/joyutil gets parsed and compiled now, so
+    // picking one on the dashboard mid-match is just a reference swap
+    tuningProfileChooser.setDefaultOption(defaultProfile.getName(), defaultProfile);
+    Map<String, TuningProfile> profiles = TuningProfile.loadDirectory(
+      Filesystem.getDeployDirectory().toPath().resolve("joyutil"), defaultProfile);
+    for (TuningProfile profile : profiles.values()) {
+      tuningProfileChooser.addOption(profile.getName(), profile);
+    }
+    SmartDashboard.putData("JoyUtil Tuning Profile", tuningProfileChooser);
+
+    joyUtilTelemetry = new JoyUtilTelemetry(joyUtil, "driver");
+    joyUtil.setAnalytics(driverAnalytics);
   }
 
   /**
@@ -50,6 +74,22 @@ public class Robot extends TimedRobot {
   @Override
   public void teleopInit() {}
 
+  @Override
+  public void teleopExit() {
+    // <> analytics only count teleop, so the end of teleop is the end of the match for them.
+    // the file is named by match, so practice (always match 0) keeps overwriting a single file
+    if (driverAnalytics.getTotalSeconds() > 0) {
+      String name = String.format("joyutil-analytics-%s-%d.csv", DriverStation.getMatchType(),
+        DriverStation.getMatchNumber());
+      try {
+        driverAnalytics.dump(Filesystem.getOperatingDirectory().toPath().resolve(name));
+      } catch (IOException e) {
+        DriverStation.reportError("Couldn't write JoyUtil analytics: " + e.getMessage(), false);
+      }
+      driverAnalytics.reset();
+    }
+  }
+
   @Override
   public void testInit() {
     // Cancels all running commands at the start of test mode.
@@ -69,30 +109,23 @@ public class Robot extends TimedRobot {
     // commands, running already-scheduled commands, removing finished or interrupted commands,
     // and running subsystem periodic() methods.  This must be called from the robot's periodic
     // block in order for anything in the Command-based framework to work.
+    // <> controller input is read first so subsystems and commands all see this loop's input
+    joyUtil.periodic();
     CommandScheduler.getInstance().run();
+
+    TuningProfile selectedProfile = tuningProfileChooser.getSelected();
+    if (selectedProfile != null && selectedProfile != joyUtil.getTuningProfile()) {
+      joyUtil.setTuningProfile(selectedProfile);
+    }
+
+    joyUtilTelemetry.periodic();
   }
 
   /**
    * This function is called periodically whilst in simulation.
    */
   @Override
-  public void simulationPeriodic() {
-    SmartDashboard.putNumber("left x", joyUtil.getLeftX());
-    SmartDashboard.putNumber("left y", joyUtil.getLeftY());
-    SmartDashboard.putNumber("right x", joyUtil.getRightX());
-    SmartDashboard.putNumber("right y", joyUtil.getRightY());
-
-    SmartDashboard.putBoolean("left bumper", joyUtil.getLeftBumper());
-    SmartDashboard.putBoolean("right bumper", joyUtil.getRightBumper());
-
-    SmartDashboard.putBoolean("left stick", joyUtil.getLeftStick());
-    SmartDashboard.putBoolean("right stick", joyUtil.getRightStick());
-
-    SmartDashboard.putBoolean("pov left", joyUtil.getPOVLeft());
-    SmartDashboard.putBoolean("pov right", joyUtil.getPOVRight());
-    SmartDashboard.putBoolean("pov down", joyUtil.getPOVDown());
-    SmartDashboard.putBoolean("pov up", joyUtil.getPOVUp());
-  }
+  public void simulationPeriodic() {}
 
   @Override
   public void disabledPeriodic() {}
@@ -0,0 +1,115 @@
+package frc.robot;
+
+import edu.wpi.first.wpilibj.GenericHID;
+import edu.wpi.first.wpilibj.GenericHID.RumbleType;
+
+/**
+ * <> plays {@link RumblePattern}s on a controller in the background
+ *
+ * <p> There's one preallocated slot per priority layer, so starting a
+ * pattern is two array writes and never allocates. Once per cycle the
+ * highest active layer on each motor is sampled from its envelope, and the
+ * HID is only written to when a motor's strength actually changed. </p>
+ */
+final class RumbleEngine {
+  private GenericHID hid;
+  private final RumblePattern[] patterns = new RumblePattern[RumblePattern.kMaxPriority + 1];
+  private final double[] startTimes = new double[RumblePattern.kMaxPriority + 1];
+
+  // <> what was last written to each motor, so unchanged values are skipped
+  private double left, right;
+
+  /**
+   * <> creates a new {@link RumbleEngine}
+   *
+   * @param hid the controller to rumble
+   */
+  RumbleEngine(GenericHID hid) {
+    this.hid = hid;
+  }
+
+  /**
+   * <> moves rumbling to a different controller. the old one is stopped,
+   * and whatever is playing carries on on the new one
+   *
+   * @param newHid the controller to rumble
+   */
+  void setHID(GenericHID newHid) {
+    hid.setRumble(RumbleType.kLeftRumble, 0);
+    hid.setRumble(RumbleType.kRightRumble, 0);
+    hid = newHid;
+
+    // <> NaN never matches, so the next update writes both motors to the new controller
+    left = Double.NaN;
+    right = Double.NaN;
+  }
+
+  /**
+   * <> starts a pattern on its priority layer, replacing whatever was there
+   *
+   * @param pattern   the pattern to play
+   * @param timestamp the current time in seconds
+   */
+  void play(RumblePattern pattern, double timestamp) {
+    patterns[pattern.getPriority()] = pattern;
+    startTimes[pattern.getPriority()] = timestamp;
+  }
+
+  /**
+   * <> stops whatever is playing on a layer
+   *
+   * @param priority the layer to stop
+   */
+  void stop(int priority) {
+    patterns[priority] = null;
+  }
+
+  /** <> stops every layer */
+  void stopAll() {
+    for (int priority = 0; priority < patterns.length; priority++) {
+      patterns[priority] = null;
+    }
+  }
+
+  /**
+   * <> samples every playing pattern and writes any change to the controller
+   *
+   * @param timestamp the current time in seconds
+   */
+  void update(double timestamp) {
+    double newLeft = 0, newRight = 0;
+    boolean leftTaken = false, rightTaken = false;
+
+    for (int priority = patterns.length - 1; priority >= 0 && !(leftTaken && rightTaken); priority--) {
+      RumblePattern pattern = patterns[priority];
+      if (pattern == null) {
+        continue;
+      }
+
+      double strength = pattern.sample(timestamp - startTimes[priority]);
+      if (strength < 0) {
+        patterns[priority] = null;
+        continue;
+      }
+
+      RumbleType type = pattern.getType();
+      if (!leftTaken && type != RumbleType.kRightRumble) {
+        newLeft = strength;
+        leftTaken = true;
+      }
+      if (!rightTaken && type != RumbleType.kLeftRumble) {
+        newRight = strength;
+        rightTaken = true;
+      }
+    }
+
+    if (newLeft != left) {
+      hid.setRumble(RumbleType.kLeftRumble, newLeft);
+      left = newLeft;
+    }
+    if (newRight != right) {
+      hid.setRumble(RumbleType.kRightRumble, newRight);
+      right = newRight;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package frc.robot;
+
+import edu.wpi.first.wpilibj.GenericHID.RumbleType;
+
+/**
+ * <> an immutable rumble pattern, played with {@link JoyUtil#rumble(RumblePattern)}
+ *
+ * <p> Patterns are built out of pulses, ramps, and constant sections
+ * joined with {@link #then(RumblePattern)}, and can repeat. Building one
+ * precomputes its whole envelope at {@link #kSampleRate} samples per
+ * second, so playing it back is just an array lookup. Build patterns
+ * once (as constants or in robotInit), not while the robot is running. </p>
+ *
+ * <p> Each pattern has a priority layer from 0 to {@link #kMaxPriority}.
+ * The highest layer that's playing on a motor wins, so a short warning on
+ * a high layer can interrupt a background pattern on a low one, which
+ * picks back up once the warning is over. </p>
+ */
+public final class RumblePattern {
+  public static final int kSampleRate = 100;
+  public static final int kMaxPriority = 3;
+  public static final int kForever = 0;
+
+  private final double[] envelope;
+  private final int repeats;
+  private final int priority;
+  private final RumbleType type;
+
+  private RumblePattern(double[] envelope, int repeats, int priority, RumbleType type) {
+    this.envelope = envelope;
+    this.repeats = repeats;
+    this.priority = priority;
+    this.type = type;
+  }
+
+  /**
+   * <> a steady rumble
+   *
+   * @param strength how hard to rumble, from 0 to 1
+   * @param seconds  how long to rumble for
+   * @return the pattern
+   */
+  public static RumblePattern constant(double strength, double seconds) {
+    return ramp(strength, strength, seconds);
+  }
+
+  /**
+   * <> a rumble followed by a pause
+   *
+   * @param strength   how hard to rumble, from 0 to 1
+   * @param onSeconds  how long to rumble for
+   * @param offSeconds how long to pause for after
+   * @return the pattern
+   */
+  public static RumblePattern pulse(double strength, double onSeconds, double offSeconds) {
+    return constant(strength, onSeconds).then(constant(0, offSeconds));
+  }
+
+  /**
+   * <> a rumble that changes strength linearly
+   *
+   * @param from    the starting strength, from 0 to 1
+   * @param to      the ending strength, from 0 to 1
+   * @param seconds how long the ramp takes
+   * @return the pattern
+   */
+  public static RumblePattern ramp(double from, double to, double seconds) {
+    int length = Math.max((int) Math.round(seconds * kSampleRate), 1);
+    double[] envelope = new double[length];
+    for (int i = 0; i < length; i++) {
+      double strength = length == 1 ? to : from + (to - from) * i / (length - 1);
+      envelope[i] = Math.max(0, Math.min(strength, 1));
+    }
+
+    return new RumblePattern(envelope, 1, 0, RumbleType.kBothRumble);
+  }
+
+  /**
+   * <> plays this pattern (once, ignoring its repeats) and then another
+   *
+   * @param next the pattern to play after this one
+   * @return the combined pattern, with this pattern's priority and motors
+   */
+  public RumblePattern then(RumblePattern next) {
+    double[] combined = new double[envelope.length + next.envelope.length];
+    System.arraycopy(envelope, 0, combined, 0, envelope.length);
+    System.arraycopy(next.envelope, 0, combined, envelope.length, next.envelope.length);
+    return new RumblePattern(combined, 1, priority, type);
+  }
+
+  /**
+   * <> plays the pattern more than once
+   *
+   * @param times how many times to play it in total, or {@link #kForever}
+   * @return the repeating pattern
+   */
+  public RumblePattern repeat(int times) {
+    return new RumblePattern(envelope, Math.max(times, kForever), priority, type);
+  }
+
+  /**
+   * <> puts the pattern on a different priority layer
+   *
+   * @param priority the layer, from 0 to {@link #kMaxPriority} (higher wins)
+   * @return the pattern on the new layer
+   */
+  public RumblePattern withPriority(int priority) {
+    return new RumblePattern(envelope, repeats, Math.max(0, Math.min(priority, kMaxPriority)), type);
+  }
+
+  /**
+   * <> plays the pattern on only one side of the controller
+   *
+   * @param type which rumble motors to use
+   * @return the pattern on the new motors
+   */
+  public RumblePattern on(RumbleType type) {
+    return new RumblePattern(envelope, repeats, priority, type);
+  }
+
+  /**
+   * <> gets the strength of the pattern some time after it started
+   *
+   * @param elapsedTime how long the pattern has been playing in seconds
+   * @return the strength from 0 to 1, or -1 once the pattern is over
+   */
+  double sample(double elapsedTime) {
+    int index = (int) (Math.max(elapsedTime, 0) * kSampleRate);
+    if (repeats != kForever && index >= envelope.length * repeats) {
+      return -1;
+    }
+
+    return envelope[index % envelope.length];
+  }
+
+  public int getPriority() {
+    return priority;
+  }
+
+  public RumbleType getType() {
+    return type;
+  }
+
+  /**
+   * <> gets how long the pattern lasts, repeats included
+   *
+   * @return the length in seconds, or infinity if it repeats forever
+   */
+  public double getDuration() {
+    return repeats == kForever ? Double.POSITIVE_INFINITY : (double) envelope.length * repeats / kSampleRate;
+  }
+}
@@ -0,0 +1,92 @@
+package frc.robot;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * <> single writer, many reader holder for the latest processed sample,
+ * using a sequence lock instead of a real lock
+ *
+ * <p> The writer makes the sequence number odd, writes every field, then
+ * makes it even again. Readers copy every field and then check that the
+ * sequence number didn't change (and wasn't odd) while they were copying,
+ * retrying if it did. Neither side ever blocks, and a reader can never see
+ * half of one sample mixed with half of another (like an x from one sample
+ * and a y from the next). </p>
+ */
+public final class SampleBuffer {
+  private volatile long sequence;
+
+  private double leftX, leftY, rightX, rightY;
+  private double leftTrigger, rightTrigger;
+  private int buttons, pov;
+  private double timestamp;
+  private double leftXOutput, leftYOutput, rightXOutput, rightYOutput;
+
+  /**
+   * <> publishes a new sample. must only ever be called from one thread
+   *
+   * @param raw   the raw input of the sample
+   * @param left  the processed left stick
+   * @param right the processed right stick
+   */
+  public void write(InputSnapshot raw, StickVector left, StickVector right) {
+    long start = sequence;
+    sequence = start + 1;
+    VarHandle.storeStoreFence();
+
+    leftX = raw.leftX;
+    leftY = raw.leftY;
+    rightX = raw.rightX;
+    rightY = raw.rightY;
+    leftTrigger = raw.leftTrigger;
+    rightTrigger = raw.rightTrigger;
+    buttons = raw.buttons;
+    pov = raw.pov;
+    timestamp = raw.timestamp;
+
+    leftXOutput = left.x;
+    leftYOutput = left.y;
+    rightXOutput = right.x;
+    rightYOutput = right.y;
+
+    sequence = start + 2;
+  }
+
+  /**
+   * <> copies the latest sample, retrying until a consistent copy is made
+   *
+   * @param raw   the snapshot to copy the raw input into
+   * @param left  the vector to copy the processed left stick into
+   * @param right the vector to copy the processed right stick into
+   * @return the number of samples that had been written when the copy was made
+   */
+  public long read(InputSnapshot raw, StickVector left, StickVector right) {
+    while (true) {
+      long start = sequence;
+
+      // <> the writer is in the middle of a sample, it'll be done very soon
+      if ((start & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+
+      raw.leftX = leftX;
+      raw.leftY = leftY;
+      raw.rightX = rightX;
+      raw.rightY = rightY;
+      raw.leftTrigger = leftTrigger;
+      raw.rightTrigger = rightTrigger;
+      raw.buttons = buttons;
+      raw.pov = pov;
+      raw.timestamp = timestamp;
+
+      left.set(leftXOutput, leftYOutput);
+      right.set(rightXOutput, rightYOutput);
+
+      VarHandle.loadLoadFence();
+      if (sequence == start) {
+        return start / 2;
+      }
+    }
+  }
+}
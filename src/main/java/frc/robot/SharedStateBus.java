@@ -0,0 +1,115 @@
+package frc.robot;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <> publishes a {@link JoyUtil}'s processed state into a small memory
+ * mapped file, so another process on the same machine can read it
+ * straight out of shared memory with a {@link SharedStateReader}. turned
+ * on with {@link JoyUtil#setSharedStateBus(SharedStateBus)}
+ *
+ * <p> The file uses the same sequence lock as {@link SampleBuffer}, but
+ * with the sequence number living in the file: the writer makes it odd,
+ * writes the state, then makes it even again, and a reader retries if the
+ * number changed while it was copying. Neither side ever locks or
+ * allocates, and nothing is serialized. Putting the file in /dev/shm
+ * keeps it off of the disk entirely. </p>
+ *
+ * <p> Layout (native byte order, 80 bytes): the magic number and the
+ * layout size (ints), then the sequence number (long), then the processed
+ * left x, left y, right x, right y, left trigger, right trigger (doubles),
+ * the button mask, the pov (ints), and the timestamp (double). The number
+ * of states published so far is the sequence number divided by 2. </p>
+ */
+public final class SharedStateBus implements AutoCloseable {
+  static final int kMagic = 0x4A4F5953; // "JOYS"
+  static final int kSize = 80;
+  static final int kSequenceOffset = 8;
+  static final int kStateOffset = 16;
+
+  // <> lets the sequence number in the file get the same ordering guarantees as a volatile field
+  static final VarHandle kSequence = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private long sequence;
+
+  /**
+   * <> creates a new {@link SharedStateBus}, taking over any file already at the path
+   *
+   * <p> An existing file is never truncated, since a reader that still
+   * has it mapped (e.g. a dashboard that outlived a robot code restart)
+   * would fault on its next access. It's only grown to the fixed size if
+   * it's shorter, and the sequence number starts over. </p>
+   *
+   * @param path the file to publish into
+   * @throws IOException if the file can't be created or mapped
+   */
+  public SharedStateBus(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+      StandardOpenOption.WRITE);
+    if (channel.size() < kSize) {
+      channel.write(ByteBuffer.allocate(1), kSize - 1);
+    }
+    this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, kSize);
+    buffer.order(ByteOrder.nativeOrder());
+
+    buffer.putInt(0, kMagic);
+    buffer.putInt(4, kSize);
+    kSequence.setVolatile(buffer, kSequenceOffset, 0L);
+  }
+
+  /**
+   * <> publishes a new state. must only ever be called from one thread
+   *
+   * @param raw    the snapshot to take the triggers, buttons, pov, and timestamp from
+   * @param leftX  the processed left x
+   * @param leftY  the processed left y
+   * @param rightX the processed right x
+   * @param rightY the processed right y
+   */
+  public void publish(InputSnapshot raw, double leftX, double leftY, double rightX, double rightY) {
+    kSequence.setVolatile(buffer, kSequenceOffset, sequence + 1);
+    VarHandle.storeStoreFence();
+
+    buffer.putDouble(kStateOffset, leftX);
+    buffer.putDouble(kStateOffset + 8, leftY);
+    buffer.putDouble(kStateOffset + 16, rightX);
+    buffer.putDouble(kStateOffset + 24, rightY);
+    buffer.putDouble(kStateOffset + 32, raw.leftTrigger);
+    buffer.putDouble(kStateOffset + 40, raw.rightTrigger);
+    buffer.putInt(kStateOffset + 48, raw.buttons);
+    buffer.putInt(kStateOffset + 52, raw.pov);
+    buffer.putDouble(kStateOffset + 56, raw.timestamp);
+
+    sequence += 2;
+    kSequence.setVolatile(buffer, kSequenceOffset, sequence);
+  }
+
+  /**
+   * <> gets the number of states published so far
+   *
+   * @return the publish count
+   */
+  public long getCount() {
+    return sequence / 2;
+  }
+
+  /**
+   * <> closes the file. readers keep seeing the last state published
+   *
+   * @throws IOException if the file can't be closed
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
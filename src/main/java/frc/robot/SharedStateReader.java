@@ -0,0 +1,94 @@
+package frc.robot;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <> reads the state published by a {@link SharedStateBus}, usually from a
+ * different process, straight out of the memory mapped file
+ *
+ * <p> Reads never block the writer and never allocate. A read that
+ * overlaps with a publish is retried, so a state is always read whole. </p>
+ */
+public final class SharedStateReader implements AutoCloseable {
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+
+  /**
+   * <> opens a bus file
+   *
+   * @param path the file a {@link SharedStateBus} is publishing into
+   * @throws IOException if the file can't be read or isn't a bus file
+   */
+  public SharedStateReader(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+    if (channel.size() < SharedStateBus.kSize) {
+      channel.close();
+      throw new IOException(path + " isn't a JoyUtil shared state file");
+    }
+
+    this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, SharedStateBus.kSize);
+    buffer.order(ByteOrder.nativeOrder());
+
+    if (buffer.getInt(0) != SharedStateBus.kMagic || buffer.getInt(4) != SharedStateBus.kSize) {
+      channel.close();
+      throw new IOException(path + " isn't a JoyUtil shared state file");
+    }
+  }
+
+  /**
+   * <> gets the number of states published so far without reading one,
+   * for cheaply checking if there's anything new
+   *
+   * @return the publish count
+   */
+  public long getCount() {
+    return (long) SharedStateBus.kSequence.getVolatile(buffer, SharedStateBus.kSequenceOffset) / 2;
+  }
+
+  /**
+   * <> copies the latest state, retrying until a consistent copy is made
+   *
+   * @param state the snapshot to copy into. its axes are the processed
+   *              ones, not raw input
+   * @return the number of states that had been published when the copy was made
+   */
+  public long read(InputSnapshot state) {
+    while (true) {
+      long start = (long) SharedStateBus.kSequence.getVolatile(buffer, SharedStateBus.kSequenceOffset);
+
+      // <> the writer is in the middle of a publish, it'll be done very soon
+      if ((start & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+
+      int offset = SharedStateBus.kStateOffset;
+      state.leftX = buffer.getDouble(offset);
+      state.leftY = buffer.getDouble(offset + 8);
+      state.rightX = buffer.getDouble(offset + 16);
+      state.rightY = buffer.getDouble(offset + 24);
+      state.leftTrigger = buffer.getDouble(offset + 32);
+      state.rightTrigger = buffer.getDouble(offset + 40);
+      state.buttons = buffer.getInt(offset + 48);
+      state.pov = buffer.getInt(offset + 52);
+      state.timestamp = buffer.getDouble(offset + 56);
+
+      VarHandle.loadLoadFence();
+      if ((long) SharedStateBus.kSequence.getVolatile(buffer, SharedStateBus.kSequenceOffset) == start) {
+        return start / 2;
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,37 @@
+package frc.robot;
+
+/**
+ * <> a {@link JoyClock} that only moves when it's told to, for running
+ * simulations and replays faster than real time
+ */
+public final class SimulatedClock implements JoyClock {
+  private double timestamp;
+
+  /**
+   * <> creates a new {@link SimulatedClock} starting at 0 seconds
+   */
+  public SimulatedClock() {}
+
+  /**
+   * <> moves the clock forward
+   *
+   * @param seconds how far to move it
+   */
+  public void step(double seconds) {
+    timestamp += seconds;
+  }
+
+  /**
+   * <> jumps the clock to a time
+   *
+   * @param timestamp the new time in seconds
+   */
+  public void set(double timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  @Override
+  public double getTimestamp() {
+    return timestamp;
+  }
+}
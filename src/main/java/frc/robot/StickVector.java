@@ -0,0 +1,64 @@
+package frc.robot;
+
+/**
+ * <> mutable x and y pair for a processed joystick. meant to be created
+ * once and passed into the stick vector getters of {@link JoyUtil} every
+ * cycle, so getting both components of a stick never allocates
+ */
+public final class StickVector {
+  public double x, y;
+
+  /**
+   * <> sets both components
+   *
+   * @param x the x component
+   * @param y the y component
+   * @return this vector
+   */
+  public StickVector set(double x, double y) {
+    this.x = x;
+    this.y = y;
+    return this;
+  }
+
+  /**
+   * <> copies both components of another vector
+   *
+   * @param other the vector to copy
+   * @return this vector
+   */
+  public StickVector set(StickVector other) {
+    return set(other.x, other.y);
+  }
+
+  /**
+   * <> gets the length of the vector
+   *
+   * @return the magnitude
+   */
+  public double getMagnitude() {
+    return Math.sqrt(x * x + y * y);
+  }
+
+  /**
+   * <> gets the direction of the vector
+   *
+   * @return the angle from the positive x-axis in radians
+   */
+  public double getAngle() {
+    return Math.atan2(y, x);
+  }
+
+  /**
+   * <> rotates the vector around the origin. rotating a driver's stick by
+   * the negative of the robot's heading makes it field relative
+   *
+   * @param radians the angle to rotate by, counterclockwise
+   * @return this vector
+   */
+  public StickVector rotate(double radians) {
+    double cos = Math.cos(radians);
+    double sin = Math.sin(radians);
+    return set(x * cos - y * sin, x * sin + y * cos);
+  }
+}
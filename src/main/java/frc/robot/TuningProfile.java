@@ -0,0 +1,325 @@
+package frc.robot;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * <> an immutable set of joystick tuning values (deadzone, curve, and
+ * trigger multipliers), precompiled into a {@link CurveEngine} so that
+ * a {@link JoyUtil} can swap to it mid-match without rebuilding anything
+ *
+ * <p> Profiles can be loaded from .properties files (usually one per
+ * driver in the deploy directory) with keys matching the constructor
+ * parameters: deadzone, exponent1, exponent2, coefficient1, coefficient2,
+ * leftTriggerLeftStickMultiplier, rightTriggerLeftStickMultiplier,
+ * leftTriggerRightStickMultiplier, and rightTriggerRightStickMultiplier.
+ * Any key left out is taken from a default profile. </p>
+ *
+ * <p> Rate limits aren't part of a profile, since swapping them would
+ * mean rebuilding the rate limiters (and losing their state). </p>
+ */
+public final class TuningProfile {
+  private final String name;
+  private final double deadzone;
+  private final double exponent1, exponent2, coefficient1, coefficient2;
+  private final double leftTriggerLeftStickMultiplier, rightTriggerLeftStickMultiplier;
+  private final double leftTriggerRightStickMultiplier, rightTriggerRightStickMultiplier;
+  private final CurveEngine curveEngine;
+
+  /**
+   * <> creates and compiles a new {@link TuningProfile}
+   *
+   * @param name                             the name of the profile
+   * @param deadzone                         the deadzone size for both axis of both joysticks
+   * @param exponent1                        the first exponent of the joystick curve
+   * @param exponent2                        the second exponent of the joystick curve
+   * @param coefficient1                     the coefficient applied to the first exponent of joystick curve
+   * @param coefficient2                     the coefficient applied to the second exponent of joystick curve
+   * @param leftTriggerLeftStickMultiplier   the amount the left joystick output is multiplied by if the left trigger
+   *                                         is pressed fully
+   * @param rightTriggerLeftStickMultiplier  the amount the left joystick output is multiplied by if the right
+   *                                         trigger is pressed fully
+   * @param leftTriggerRightStickMultiplier  the amount the right joystick output is multiplied by if the left
+   *                                         trigger is pressed fully
+   * @param rightTriggerRightStickMultiplier the amount the right joystick output is multiplied by if the right
+   *                                         trigger is pressed fully
+   */
+  public TuningProfile(String name, double deadzone, double exponent1, double exponent2, double coefficient1,
+                       double coefficient2, double leftTriggerLeftStickMultiplier,
+                       double rightTriggerLeftStickMultiplier, double leftTriggerRightStickMultiplier,
+                       double rightTriggerRightStickMultiplier) {
+    this.name = name;
+    this.deadzone = deadzone;
+    this.exponent1 = exponent1;
+    this.exponent2 = exponent2;
+    this.coefficient1 = coefficient1;
+    this.coefficient2 = coefficient2;
+    this.leftTriggerLeftStickMultiplier = leftTriggerLeftStickMultiplier;
+    this.rightTriggerLeftStickMultiplier = rightTriggerLeftStickMultiplier;
+    this.leftTriggerRightStickMultiplier = leftTriggerRightStickMultiplier;
+    this.rightTriggerRightStickMultiplier = rightTriggerRightStickMultiplier;
+    this.curveEngine = new CurveEngine(deadzone, exponent1, exponent2, coefficient1, coefficient2);
+
+    // <> even exponents make for very weird behaviour so provide
+    // a one-time warning in the rio log if there are even exponents
+    if (exponent1 % 2 == 0 || exponent2 % 2 == 0) {
+      System.out.println("Exponents of joystick curve aren't odd!");
+    }
+  }
+
+  /**
+   * <> creates a profile from properties, filling in anything missing from a default profile
+   *
+   * @param name       the name of the profile
+   * @param properties the values of the profile
+   * @param defaults   the profile to take missing values from
+   * @return the new profile
+   * @throws NumberFormatException    if a value isn't a finite number
+   * @throws IllegalArgumentException if the deadzone isn't at least 0 and less than 1, or an exponent isn't a
+   *                                  positive whole number (anything else curves the negative half of the
+   *                                  stick into NaN)
+   */
+  public static TuningProfile fromProperties(String name, Properties properties, TuningProfile defaults) {
+    double deadzone = get(properties, "deadzone", defaults.deadzone);
+    if (deadzone < 0 || deadzone >= 1) {
+      throw new IllegalArgumentException("deadzone must be at least 0 and less than 1, but was " + deadzone);
+    }
+
+    double exponent1 = getExponent(properties, "exponent1", defaults.exponent1);
+    double exponent2 = getExponent(properties, "exponent2", defaults.exponent2);
+
+    return new TuningProfile(name, deadzone, exponent1, exponent2,
+      get(properties, "coefficient1", defaults.coefficient1),
+      get(properties, "coefficient2", defaults.coefficient2),
+      get(properties, "leftTriggerLeftStickMultiplier", defaults.leftTriggerLeftStickMultiplier),
+      get(properties, "rightTriggerLeftStickMultiplier", defaults.rightTriggerLeftStickMultiplier),
+      get(properties, "leftTriggerRightStickMultiplier", defaults.leftTriggerRightStickMultiplier),
+      get(properties, "rightTriggerRightStickMultiplier", defaults.rightTriggerRightStickMultiplier));
+  }
+
+  /**
+   * <> loads every .properties file in a directory as a profile named after
+   * the file. files that can't be read or have invalid values are reported
+   * to the DriverStation and skipped
+   *
+   * @param directory the directory to load from
+   * @param defaults  the profile to take missing values from
+   * @return the loaded profiles by name, in alphabetical order
+   */
+  public static Map<String, TuningProfile> loadDirectory(Path directory, TuningProfile defaults) {
+    Map<String, TuningProfile> profiles = new TreeMap<>();
+    if (!Files.isDirectory(directory)) {
+      DriverStation.reportWarning("No JoyUtil tuning profiles found in " + directory, false);
+      return profiles;
+    }
+
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.properties")) {
+      for (Path file : files) {
+        String fileName = file.getFileName().toString();
+        String name = fileName.substring(0, fileName.length() - ".properties".length());
+
+        try (Reader reader = Files.newBufferedReader(file)) {
+          Properties properties = new Properties();
+          properties.load(reader);
+          profiles.put(name, fromProperties(name, properties, defaults));
+        } catch (IOException | IllegalArgumentException e) {
+          DriverStation.reportError("Couldn't load JoyUtil tuning profile " + file + ": " + e.getMessage(), false);
+        }
+      }
+    } catch (IOException e) {
+      DriverStation.reportError("Couldn't list JoyUtil tuning profiles in " + directory + ": " + e.getMessage(),
+        false);
+    }
+
+    return profiles;
+  }
+
+  private static double get(Properties properties, String key, double fallback) {
+    String value = properties.getProperty(key);
+    if (value == null) {
+      return fallback;
+    }
+
+    double parsed = Double.parseDouble(value.trim());
+    if (!Double.isFinite(parsed)) {
+      throw new NumberFormatException(key + " must be a finite number, but was " + value.trim());
+    }
+    return parsed;
+  }
+
+  private static double getExponent(Properties properties, String key, double fallback) {
+    double exponent = get(properties, key, fallback);
+    if (exponent < 1 || exponent != Math.rint(exponent)) {
+      throw new IllegalArgumentException(key + " must be a positive whole number, but was " + exponent);
+    }
+    return exponent;
+  }
+
+  /**
+   * <> applies deadzoning, curve, and trigger multipliers to a raw left stick axis
+   *
+   * @param value        the raw input from the joystick
+   * @param leftTrigger  the left trigger axis, from 0 to 1
+   * @param rightTrigger the right trigger axis, from 0 to 1
+   * @return the processed input
+   * @apiNote does not do any rate limiting
+   */
+  public double composeLeftStick(double value, double leftTrigger, double rightTrigger) {
+    return composeJoystickFunctions(value, leftTrigger, rightTrigger, leftTriggerLeftStickMultiplier,
+      rightTriggerLeftStickMultiplier);
+  }
+
+  /**
+   * <> applies deadzoning, curve, and trigger multipliers to a raw right stick axis
+   *
+   * @param value        the raw input from the joystick
+   * @param leftTrigger  the left trigger axis, from 0 to 1
+   * @param rightTrigger the right trigger axis, from 0 to 1
+   * @return the processed input
+   * @apiNote does not do any rate limiting
+   */
+  public double composeRightStick(double value, double leftTrigger, double rightTrigger) {
+    return composeJoystickFunctions(value, leftTrigger, rightTrigger, leftTriggerRightStickMultiplier,
+      rightTriggerRightStickMultiplier);
+  }
+
+  /**
+   * <> processes the raw left stick as a vector (see {@link #composeStickVector})
+   *
+   * @param x            the raw x input from the joystick
+   * @param y            the raw y input from the joystick
+   * @param leftTrigger  the left trigger axis, from 0 to 1
+   * @param rightTrigger the right trigger axis, from 0 to 1
+   * @param output       the vector to write the result into
+   */
+  public void composeLeftStickVector(double x, double y, double leftTrigger, double rightTrigger,
+                                     StickVector output) {
+    composeStickVector(x, y, leftTrigger, rightTrigger, leftTriggerLeftStickMultiplier,
+      rightTriggerLeftStickMultiplier, output);
+  }
+
+  /**
+   * <> processes the raw right stick as a vector (see {@link #composeStickVector})
+   *
+   * @param x            the raw x input from the joystick
+   * @param y            the raw y input from the joystick
+   * @param leftTrigger  the left trigger axis, from 0 to 1
+   * @param rightTrigger the right trigger axis, from 0 to 1
+   * @param output       the vector to write the result into
+   */
+  public void composeRightStickVector(double x, double y, double leftTrigger, double rightTrigger,
+                                      StickVector output) {
+    composeStickVector(x, y, leftTrigger, rightTrigger, leftTriggerRightStickMultiplier,
+      rightTriggerRightStickMultiplier, output);
+  }
+
+  /**
+   * <> applies deadzoning, curve, and trigger multipliers to a raw input
+   *
+   * @param value                  the raw input from the joystick
+   * @param leftTrigger            the left trigger axis, from 0 to 1
+   * @param rightTrigger           the right trigger axis, from 0 to 1
+   * @param leftTriggerMultiplier  the left trigger output multiplier for the axis being calculated
+   * @param rightTriggerMultiplier the right trigger output multiplier for the axis being calculated
+   * @return the raw input after being deadzoned, curved, and having trigger multipliers applied
+   * @apiNote does not do any rate limiting
+   */
+  private double composeJoystickFunctions(double value, double leftTrigger, double rightTrigger,
+                                          double leftTriggerMultiplier, double rightTriggerMultiplier) {
+    // <> deadzoning and curving are compiled into one lookup by the curve engine
+    double withCurve = curveEngine.apply(value);
+    double withMultipliers = JoyMath.applyTriggerMultipliers(withCurve, leftTrigger, rightTrigger,
+      leftTriggerMultiplier, rightTriggerMultiplier);
+
+    return withMultipliers;
+  }
+
+  /**
+   * <> applies deadzoning, curve, and trigger multipliers to the magnitude
+   * of a joystick while keeping its direction
+   *
+   * @param x                      the raw x input from the joystick
+   * @param y                      the raw y input from the joystick
+   * @param leftTrigger            the left trigger axis, from 0 to 1
+   * @param rightTrigger           the right trigger axis, from 0 to 1
+   * @param leftTriggerMultiplier  the left trigger output multiplier for the stick
+   * @param rightTriggerMultiplier the right trigger output multiplier for the stick
+   * @param output                 the vector to write the result into
+   * @apiNote does not do any rate limiting
+   */
+  private void composeStickVector(double x, double y, double leftTrigger, double rightTrigger,
+                                  double leftTriggerMultiplier, double rightTriggerMultiplier, StickVector output) {
+    // <> raw sticks can reach past the unit circle in the corners, so cap the magnitude at 1
+    double length = Math.sqrt(x * x + y * y);
+    double withCurve = curveEngine.apply(Math.min(length, 1));
+
+    // <> curveEngine is 0 inside the deadzone, which also covers a magnitude of 0
+    if (withCurve == 0) {
+      output.set(0, 0);
+      return;
+    }
+
+    double withMultipliers = JoyMath.applyTriggerMultipliers(withCurve, leftTrigger, rightTrigger,
+      leftTriggerMultiplier, rightTriggerMultiplier);
+
+    double scale = withMultipliers / length;
+    output.set(x * scale, y * scale);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public double getDeadzone() {
+    return deadzone;
+  }
+
+  public double getExponent1() {
+    return exponent1;
+  }
+
+  public double getExponent2() {
+    return exponent2;
+  }
+
+  public double getCoefficient1() {
+    return coefficient1;
+  }
+
+  public double getCoefficient2() {
+    return coefficient2;
+  }
+
+  public double getLeftTriggerLeftStickMultiplier() {
+    return leftTriggerLeftStickMultiplier;
+  }
+
+  public double getRightTriggerLeftStickMultiplier() {
+    return rightTriggerLeftStickMultiplier;
+  }
+
+  public double getLeftTriggerRightStickMultiplier() {
+    return leftTriggerRightStickMultiplier;
+  }
+
+  public double getRightTriggerRightStickMultiplier() {
+    return rightTriggerRightStickMultiplier;
+  }
+
+  public CurveEngine getCurveEngine() {
+    return curveEngine;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,65 @@
+package frc.robot;
+
+/**
+ * <> rate limiter for a 2d vector. unlike two separate slew rate limiters,
+ * this limits how far the whole vector can move per second, so diagonal
+ * movement is limited the same as movement along one axis
+ *
+ * <p> time is passed in rather than read, so one clock read can be shared
+ * between every limiter in a cycle </p>
+ */
+public final class VectorRateLimiter {
+  private final double rateLimit;
+  private double previousX, previousY;
+  private double previousTime = Double.NaN;
+
+  /**
+   * <> creates a new {@link VectorRateLimiter} starting at (0, 0)
+   *
+   * @param rateLimit the max distance the vector can move in one second
+   */
+  public VectorRateLimiter(double rateLimit) {
+    this.rateLimit = rateLimit;
+  }
+
+  /**
+   * <> moves the vector toward a target, but no further than the rate limit allows
+   *
+   * @param vector    the target, which is overwritten with the limited output
+   * @param timestamp the current time in seconds
+   * @return the limited vector (the same object passed in)
+   */
+  public StickVector calculate(StickVector vector, double timestamp) {
+    // <> the first call has no time to compare against, and time going backwards
+    // would make the step negative, so neither moves the vector at all
+    double elapsedTime = Double.isNaN(previousTime) ? 0 : Math.max(timestamp - previousTime, 0);
+    previousTime = timestamp;
+
+    double deltaX = vector.x - previousX;
+    double deltaY = vector.y - previousY;
+    double distance = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+    double maxDistance = rateLimit * elapsedTime;
+
+    if (distance > maxDistance) {
+      double scale = maxDistance / distance;
+      deltaX *= scale;
+      deltaY *= scale;
+    }
+
+    previousX += deltaX;
+    previousY += deltaY;
+    return vector.set(previousX, previousY);
+  }
+
+  /**
+   * <> jumps the limiter straight to a value
+   *
+   * @param x the x component to reset to
+   * @param y the y component to reset to
+   */
+  public void reset(double x, double y) {
+    previousX = x;
+    previousY = y;
+    previousTime = Double.NaN;
+  }
+}
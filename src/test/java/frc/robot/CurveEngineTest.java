@@ -0,0 +1,56 @@
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.Constants.JoyUtilConstants;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * <> checks how far {@link CurveEngine}'s lookup table can be from the
+ * reference math
+ *
+ * <p> Linear interpolation is off by at most h^2 / 8 times the largest
+ * second derivative of the curve, for a segment width of h. At the default
+ * resolution that stays well under {@link #maxError} even for a 9th power
+ * curve behind a large deadzone, which is as steep as a profile gets. </p>
+ */
+public class CurveEngineTest {
+  private static final double maxError = 1e-4;
+  private static final int samples = 100_001;
+
+  @Test
+  public void constantsCurveStaysWithinBound() {
+    CurveEngine curveEngine = new CurveEngine(JoyUtilConstants.kDeadzone, JoyUtilConstants.exponent1,
+      JoyUtilConstants.exponent2, JoyUtilConstants.coeff1, JoyUtilConstants.coeff2);
+
+    double error = curveEngine.measureMaxError(samples);
+    assertTrue(error < maxError, () -> "max error " + error + " is over " + maxError);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "0, 1, 9, 0, 1",
+    "0.2, 7, 9, 0.5, 0.5",
+    "0.3, 9, 9, 1, 0",
+    "0.05, 1, 1, 1, 0",
+    "0, 1, 3, 1, 1"
+  })
+  public void extremeCurvesStayWithinBound(double deadzone, double exponent1, double exponent2,
+                                           double coefficient1, double coefficient2) {
+    CurveEngine curveEngine = new CurveEngine(deadzone, exponent1, exponent2, coefficient1, coefficient2);
+
+    double error = curveEngine.measureMaxError(samples);
+    assertTrue(error < maxError, () -> "max error " + error + " is over " + maxError);
+  }
+
+  @Test
+  public void linearCurveIsExact() {
+    CurveEngine curveEngine = new CurveEngine(0.1, 1, 1, 0.5, 0.5);
+
+    double error = curveEngine.measureMaxError(samples);
+    assertTrue(error < 1e-12, () -> "max error " + error + " for a straight line");
+  }
+}
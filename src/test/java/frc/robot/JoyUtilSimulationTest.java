@@ -0,0 +1,288 @@
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.XboxControllerSim;
+import frc.robot.Constants.JoyUtilConstants;
+import frc.robot.Constants.OperatorConstants;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <> drives {@link JoyUtil} through simulated controller input, one 20ms
+ * cycle at a time. time comes from a {@link SimulatedClock}, so it runs
+ * as fast as the cpu allows
+ *
+ * <p> Every cycle the sticks, triggers, buttons, and d-pad follow scripted
+ * waveforms (sines, triangles, steps, and sweeps through every button and
+ * d-pad direction), and the outputs are checked against the reference math
+ * (exact deadzone and curve, trigger multipliers, and rate limiters fed
+ * the same timestamps) and against the script. </p>
+ *
+ * <p> Each test runs millions of cycles (hours of driving), so slow drift
+ * in the rate limiters and every combination of the scripted waveforms
+ * get covered, not just the first few minutes. </p>
+ */
+public class JoyUtilSimulationTest {
+  private static final int cycles = 2_000_000;
+  private static final int warmupCycles = 200_000;
+  private static final double cycleSeconds = 0.02;
+  private static final double tolerance = 1e-5;
+  private static final int buttonCount = 10;
+
+  private final XboxControllerSim sim = new XboxControllerSim(OperatorConstants.kDriverControllerPort);
+  private final SimulatedClock clock = new SimulatedClock();
+  private final InputSnapshot raw = new InputSnapshot();
+  private final StickVector leftVector = new StickVector();
+  private final StickVector rightVector = new StickVector();
+
+  private JoyUtil joyUtil;
+  private CurveEngine curveEngine;
+
+  // <> reference rate limiter state: the four axes, then x and y of the left and right vectors
+  private final double[] referenceOutputs = new double[4];
+  private final double[] referenceVectors = new double[4];
+  private double previousTimestamp = Double.NaN;
+
+  @BeforeAll
+  public static void initializeHal() {
+    HAL.initialize(500, 0);
+  }
+
+  @BeforeEach
+  public void createJoyUtil() {
+    // <> sim joystick data is global to the jvm, and JoyUtil captures input when it's created,
+    // so whatever the previous test left pressed has to be cleared first
+    writeNeutralInput();
+    joyUtil = new JoyUtil(OperatorConstants.kDriverControllerPort, JoyUtilConstants.kDeadzone,
+      JoyUtilConstants.kRateLimitLeft, JoyUtilConstants.kRateLimitRight, JoyUtilConstants.exponent1,
+      JoyUtilConstants.exponent2, JoyUtilConstants.coeff1, JoyUtilConstants.coeff2,
+      JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier,
+      JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier);
+    joyUtil.setClock(clock);
+    curveEngine = joyUtil.getTuningProfile().getCurveEngine();
+  }
+
+  @Test
+  public void outputsMatchReferenceMath() {
+    for (int cycle = 0; cycle < cycles; cycle++) {
+      step(cycle);
+      joyUtil.getSnapshot(raw);
+
+      double elapsedTime = Double.isNaN(previousTimestamp) ? 0 : raw.timestamp - previousTimestamp;
+      previousTimestamp = raw.timestamp;
+      int at = cycle;
+
+      assertEquals(referenceAxis(0, raw.leftX, true, elapsedTime), joyUtil.getLeftX(), tolerance,
+        () -> "leftX on cycle " + at);
+      assertEquals(referenceAxis(1, raw.leftY, true, elapsedTime), joyUtil.getLeftY(), tolerance,
+        () -> "leftY on cycle " + at);
+      assertEquals(referenceAxis(2, raw.rightX, false, elapsedTime), joyUtil.getRightX(), tolerance,
+        () -> "rightX on cycle " + at);
+      assertEquals(referenceAxis(3, raw.rightY, false, elapsedTime), joyUtil.getRightY(), tolerance,
+        () -> "rightY on cycle " + at);
+
+      joyUtil.getLeftStickVector(leftVector);
+      referenceVector(0, raw.leftX, raw.leftY, JoyUtilConstants.kRateLimitLeft, elapsedTime);
+      assertEquals(referenceVectors[0], leftVector.x, tolerance, () -> "left vector x on cycle " + at);
+      assertEquals(referenceVectors[1], leftVector.y, tolerance, () -> "left vector y on cycle " + at);
+
+      joyUtil.getRightStickVector(rightVector);
+      referenceVector(2, raw.rightX, raw.rightY, JoyUtilConstants.kRateLimitRight, elapsedTime);
+      assertEquals(referenceVectors[2], rightVector.x, tolerance, () -> "right vector x on cycle " + at);
+      assertEquals(referenceVectors[3], rightVector.y, tolerance, () -> "right vector y on cycle " + at);
+    }
+  }
+
+  @Test
+  public void buttonAndPOVEdgesMatchScript() {
+    int[] pressedCounts = new int[buttonCount];
+    int[] releasedCounts = new int[buttonCount];
+    int povChanges = 0;
+
+    int[] expectedPressedCounts = new int[buttonCount];
+    int[] expectedReleasedCounts = new int[buttonCount];
+    int expectedPOVChanges = 0;
+
+    int previousButtons = 0;
+    int previousPOV = -1;
+    int previousExpectedPOV = -1;
+    for (int cycle = 0; cycle < cycles; cycle++) {
+      step(cycle);
+
+      int buttons = buttonsAt(cycle);
+      int pressed = joyUtil.getPressedMask();
+      int released = joyUtil.getReleasedMask();
+      int pov = joyUtil.getPOVDirection().getAngle();
+      for (int button = 0; button < buttonCount; button++) {
+        int bit = 1 << button;
+        pressedCounts[button] += (pressed & bit) != 0 ? 1 : 0;
+        releasedCounts[button] += (released & bit) != 0 ? 1 : 0;
+        expectedPressedCounts[button] += (buttons & ~previousButtons & bit) != 0 ? 1 : 0;
+        expectedReleasedCounts[button] += (~buttons & previousButtons & bit) != 0 ? 1 : 0;
+      }
+      povChanges += pov != previousPOV ? 1 : 0;
+      expectedPOVChanges += povAt(cycle) != previousExpectedPOV ? 1 : 0;
+
+      int at = cycle;
+      assertEquals(buttons & ~previousButtons, pressed, () -> "pressed mask on cycle " + at);
+      assertEquals(~buttons & previousButtons, released, () -> "released mask on cycle " + at);
+      assertEquals(povAt(cycle), pov, () -> "d-pad direction on cycle " + at);
+
+      previousButtons = buttons;
+      previousPOV = pov;
+      previousExpectedPOV = povAt(cycle);
+    }
+
+    for (int button = 0; button < buttonCount; button++) {
+      int number = button + 1;
+      assertEquals(expectedPressedCounts[button], pressedCounts[button], () -> "presses of button " + number);
+      assertEquals(expectedReleasedCounts[button], releasedCounts[button], () -> "releases of button " + number);
+    }
+    assertEquals(expectedPOVChanges, povChanges, "d-pad direction changes");
+  }
+
+  /**
+   * <> after a warmup, counts the bytes allocated on this thread inside
+   * JoyUtil's calls. anything above zero is what turns into GC pauses and
+   * loop overruns on the rio. writing simulated input isn't counted
+   */
+  @Test
+  public void noSteadyStateAllocation() {
+    com.sun.management.ThreadMXBean threadBean =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    // <> same calibration as PipelineProfiler, reading the counter can allocate by itself
+    long overhead = Long.MAX_VALUE;
+    for (int i = 0; i < 16; i++) {
+      long start = threadBean.getThreadAllocatedBytes(threadId);
+      overhead = Math.min(overhead, threadBean.getThreadAllocatedBytes(threadId) - start);
+    }
+
+    long allocatedBytes = 0;
+    for (int cycle = 0; cycle < warmupCycles + cycles; cycle++) {
+      writeInput(cycle);
+      clock.step(cycleSeconds);
+
+      long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+      readOutputs();
+      long bytes = threadBean.getThreadAllocatedBytes(threadId) - startBytes - overhead;
+
+      if (cycle >= warmupCycles) {
+        allocatedBytes += Math.max(bytes, 0);
+      }
+    }
+
+    assertEquals(0, allocatedBytes, "bytes allocated by JoyUtil after warmup");
+  }
+
+  /** <> writes the scripted input for a cycle, advances the clock, and reads every output */
+  private void step(int cycle) {
+    writeInput(cycle);
+    clock.step(cycleSeconds);
+    readOutputs();
+  }
+
+  private void readOutputs() {
+    joyUtil.update();
+    joyUtil.getLeftX();
+    joyUtil.getLeftY();
+    joyUtil.getRightX();
+    joyUtil.getRightY();
+    joyUtil.getLeftStickVector(leftVector);
+    joyUtil.getRightStickVector(rightVector);
+    joyUtil.getPressedMask();
+    joyUtil.getReleasedMask();
+    joyUtil.getPOVDirection();
+    joyUtil.getSnapshot(raw);
+  }
+
+  private void writeInput(int cycle) {
+    double time = cycle * cycleSeconds;
+
+    sim.setLeftX(Math.sin(2 * Math.PI * 0.5 * time));
+    sim.setLeftY(triangle(time, 1.3));
+    sim.setRightX(Math.floor(time * 2) % 2 == 0 ? 0.8 : -0.35);
+    sim.setRightY(2 * ((time * 0.7) % 1) - 1);
+    sim.setLeftTriggerAxis(0.5 + 0.5 * Math.sin(2 * Math.PI * 0.23 * time));
+    sim.setRightTriggerAxis(triangle(time, 0.4) * 0.5 + 0.5);
+
+    int buttons = buttonsAt(cycle);
+    for (int button = 1; button <= buttonCount; button++) {
+      sim.setRawButton(button, (buttons & (1 << (button - 1))) != 0);
+    }
+    sim.setPOV(povAt(cycle));
+    sim.notifyNewData();
+  }
+
+  private void writeNeutralInput() {
+    sim.setLeftX(0);
+    sim.setLeftY(0);
+    sim.setRightX(0);
+    sim.setRightY(0);
+    sim.setLeftTriggerAxis(0);
+    sim.setRightTriggerAxis(0);
+    for (int button = 1; button <= buttonCount; button++) {
+      sim.setRawButton(button, false);
+    }
+    sim.setPOV(-1);
+    sim.notifyNewData();
+  }
+
+  /** <> a different combination of buttons every 7 cycles, going through all of them */
+  private static int buttonsAt(int cycle) {
+    return (cycle / 7) & ((1 << buttonCount) - 1);
+  }
+
+  /** <> every d-pad direction, then not pressed, each held for 5 cycles */
+  private static int povAt(int cycle) {
+    int step = (cycle / 5) % 9;
+    return step == 8 ? -1 : step * 45;
+  }
+
+  private static double triangle(double time, double frequency) {
+    double phase = (time * frequency) % 1;
+    return phase < 0.5 ? 4 * phase - 1 : 3 - 4 * phase;
+  }
+
+  private double referenceAxis(int axis, double value, boolean leftStick, double elapsedTime) {
+    double rateLimit = leftStick ? JoyUtilConstants.kRateLimitLeft : JoyUtilConstants.kRateLimitRight;
+    double target = JoyMath.applyTriggerMultipliers(curveEngine.reference(value), raw.leftTrigger,
+      raw.rightTrigger, JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier);
+
+    double maxChange = rateLimit * elapsedTime;
+    referenceOutputs[axis] += Math.max(-maxChange, Math.min(target - referenceOutputs[axis], maxChange));
+    return referenceOutputs[axis];
+  }
+
+  /** <> curves the stick's magnitude, keeps its direction, and limits how far the vector moves per cycle */
+  private void referenceVector(int index, double x, double y, double rateLimit, double elapsedTime) {
+    double length = Math.sqrt(x * x + y * y);
+    double curved = curveEngine.reference(Math.min(length, 1));
+    double targetX = 0, targetY = 0;
+    if (curved != 0) {
+      double scale = JoyMath.applyTriggerMultipliers(curved, raw.leftTrigger, raw.rightTrigger,
+        JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier) / length;
+      targetX = x * scale;
+      targetY = y * scale;
+    }
+
+    double deltaX = targetX - referenceVectors[index];
+    double deltaY = targetY - referenceVectors[index + 1];
+    double distance = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+    double maxDistance = rateLimit * elapsedTime;
+    if (distance > maxDistance) {
+      deltaX *= maxDistance / distance;
+      deltaY *= maxDistance / distance;
+    }
+
+    referenceVectors[index] += deltaX;
+    referenceVectors[index + 1] += deltaY;
+  }
+}
@@ -0,0 +1,52 @@
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import frc.robot.Constants.JoyUtilConstants;
+
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/** <> checks that profiles from the deploy directory are validated before they're compiled */
+public class TuningProfileTest {
+  private static final TuningProfile defaults = new TuningProfile("constants", JoyUtilConstants.kDeadzone,
+    JoyUtilConstants.exponent1, JoyUtilConstants.exponent2, JoyUtilConstants.coeff1, JoyUtilConstants.coeff2,
+    JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier,
+    JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier);
+
+  private static Properties properties(String key, String value) {
+    Properties properties = new Properties();
+    properties.setProperty(key, value);
+    return properties;
+  }
+
+  @Test
+  public void validValuesAreLoaded() {
+    Properties properties = properties("deadzone", "0.05");
+    properties.setProperty("exponent2", "5");
+
+    TuningProfile profile = TuningProfile.fromProperties("valid", properties, defaults);
+    assertEquals(0.05, profile.getDeadzone(), 0);
+    assertEquals(5, profile.getExponent2(), 0);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "deadzone, 1",
+    "deadzone, 1.5",
+    "deadzone, -0.1",
+    "exponent1, 2.5",
+    "exponent2, 0",
+    "exponent2, -3",
+    "coefficient1, NaN",
+    "leftTriggerLeftStickMultiplier, Infinity"
+  })
+  public void invalidValuesAreRejected(String key, String value) {
+    assertThrows(IllegalArgumentException.class,
+      () -> TuningProfile.fromProperties("invalid", properties(key, value), defaults));
+  }
+}
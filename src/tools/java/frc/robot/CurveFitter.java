@@ -0,0 +1,294 @@
+package frc.robot;
+
+import frc.robot.Constants.JoyUtilConstants;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <> desktop tool that searches for the curve parameters (deadzone,
+ * exponents, coefficients) and rate limits that best reproduce how the
+ * robot actually moved over recorded driver sessions, and writes them out
+ * as a {@link TuningProfile} .properties file. run with
+ * {@code ./gradlew fitCurve --args="<sessions directory> <output file>"}
+ *
+ * <p> A session is a recording made by {@link InputRecorder} named
+ * something.joyr, next to a something.csv with the achieved motion: a
+ * header line, then one line of leftX,leftY,rightX,rightY per recorded
+ * sample, each scaled to the same -1 to 1 range as the processed axes
+ * (e.g. chassis speed over max speed). </p>
+ *
+ * <p> Every candidate profile is replayed over every sample exactly the
+ * way {@link JoyUtil} does it (the profile's compiled curve and trigger
+ * multipliers, then the same rate limiting, fed the recorded timestamps)
+ * and scored by squared error against the achieved motion. The sticks
+ * only share the curve, so each curve is composed once and the left and
+ * right rate limits are searched on their own, instead of as every pair.
+ * Curves are split across cores with fork-join. </p>
+ *
+ * <p> Trigger multipliers aren't searched and are copied from
+ * {@link JoyUtilConstants}. Rate limits aren't part of a profile, so they
+ * are written as comments to copy into {@link JoyUtilConstants}. </p>
+ */
+public final class CurveFitter {
+  private static final int deadzoneSteps = 10;
+  private static final double maxDeadzone = 0.2;
+  private static final int[] exponents = {1, 3, 5, 7, 9};
+  private static final int coefficientSteps = 20;
+  private static final int rateLimitSteps = 20;
+  private static final double rateLimitStep = 0.5;
+
+  // <> every sample of every session back to back, one array per column.
+  // elapsed time is NaN on the first sample of a session, where rate
+  // limiting starts over
+  private final double[] leftX, leftY, rightX, rightY, leftTrigger, rightTrigger, elapsedTimes;
+  private final double[] achievedLeftX, achievedLeftY, achievedRightX, achievedRightY;
+  private final int count;
+
+  // <> curve candidates as {deadzone, exponent1, exponent2, coefficient1, coefficient2}
+  private final List<double[]> curves = new ArrayList<>();
+  private final double[] rateLimits = new double[rateLimitSteps + 1];
+
+  // <> composed (not yet rate limited) axes of the curve being scored, reused per thread
+  private final ThreadLocal<double[][]> composed;
+
+  private CurveFitter(List<Path> recordings) throws IOException {
+    int total = 0;
+    for (Path recording : recordings) {
+      try (InputReplay replay = new InputReplay(recording)) {
+        total += replay.getCount();
+      }
+    }
+
+    count = total;
+    leftX = new double[count];
+    leftY = new double[count];
+    rightX = new double[count];
+    rightY = new double[count];
+    leftTrigger = new double[count];
+    rightTrigger = new double[count];
+    elapsedTimes = new double[count];
+    achievedLeftX = new double[count];
+    achievedLeftY = new double[count];
+    achievedRightX = new double[count];
+    achievedRightY = new double[count];
+
+    int index = 0;
+    for (Path recording : recordings) {
+      index = loadSession(recording, index);
+    }
+
+    for (int deadzone = 0; deadzone <= deadzoneSteps; deadzone++) {
+      for (int first = 0; first < exponents.length; first++) {
+        for (int second = first + 1; second < exponents.length; second++) {
+          // <> the coefficients always add up to 1, so a full stick is still full output
+          for (int coefficient = 0; coefficient <= coefficientSteps; coefficient++) {
+            curves.add(new double[] {maxDeadzone * deadzone / deadzoneSteps, exponents[first], exponents[second],
+              (double) coefficient / coefficientSteps, (double) (coefficientSteps - coefficient) / coefficientSteps});
+          }
+        }
+      }
+    }
+
+    for (int rateLimit = 0; rateLimit < rateLimitSteps; rateLimit++) {
+      rateLimits[rateLimit] = (rateLimit + 1) * rateLimitStep;
+    }
+    rateLimits[rateLimitSteps] = Double.POSITIVE_INFINITY;
+
+    composed = ThreadLocal.withInitial(() -> new double[4][count]);
+  }
+
+  private int loadSession(Path recording, int start) throws IOException {
+    String fileName = recording.getFileName().toString();
+    Path motion = recording.resolveSibling(fileName.substring(0, fileName.length() - ".joyr".length()) + ".csv");
+    List<String> lines = Files.readAllLines(motion);
+
+    InputSnapshot sample = new InputSnapshot();
+    int index = start;
+    try (InputReplay replay = new InputReplay(recording)) {
+      if (lines.size() - 1 != replay.getCount()) {
+        throw new IOException(motion + " has " + (lines.size() - 1) + " samples, but " + recording + " has "
+          + replay.getCount());
+      }
+
+      double previousTimestamp = Double.NaN;
+      for (int line = 1; replay.next(sample); line++, index++) {
+        String[] columns = lines.get(line).split(",");
+        if (columns.length != 4) {
+          throw new IOException(motion + " line " + (line + 1) + " doesn't have 4 columns");
+        }
+
+        leftX[index] = sample.leftX;
+        leftY[index] = sample.leftY;
+        rightX[index] = sample.rightX;
+        rightY[index] = sample.rightY;
+        leftTrigger[index] = sample.leftTrigger;
+        rightTrigger[index] = sample.rightTrigger;
+        elapsedTimes[index] = sample.timestamp - previousTimestamp;
+        previousTimestamp = sample.timestamp;
+
+        achievedLeftX[index] = Double.parseDouble(columns[0].trim());
+        achievedLeftY[index] = Double.parseDouble(columns[1].trim());
+        achievedRightX[index] = Double.parseDouble(columns[2].trim());
+        achievedRightY[index] = Double.parseDouble(columns[3].trim());
+      }
+    }
+
+    return index;
+  }
+
+  /** <> the best profile and rate limits found, and their total squared error */
+  private static final class Fit {
+    final TuningProfile profile;
+    final double rateLimitLeft, rateLimitRight;
+    final double error;
+
+    Fit(TuningProfile profile, double rateLimitLeft, double rateLimitRight, double error) {
+      this.profile = profile;
+      this.rateLimitLeft = rateLimitLeft;
+      this.rateLimitRight = rateLimitRight;
+      this.error = error;
+    }
+
+    Fit better(Fit other) {
+      return other.error < error ? other : this;
+    }
+  }
+
+  /** <> scores a range of curves, splitting it in half until each task has a single curve */
+  private final class FitTask extends RecursiveTask<Fit> {
+    private final int from, to;
+
+    FitTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Fit compute() {
+      if (to - from == 1) {
+        return evaluate(curves.get(from));
+      }
+
+      int middle = (from + to) >>> 1;
+      FitTask first = new FitTask(from, middle);
+      first.fork();
+      Fit second = new FitTask(middle, to).compute();
+      return first.join().better(second);
+    }
+  }
+
+  private Fit evaluate(double[] curve) {
+    TuningProfile profile = new TuningProfile("fitted", curve[0], curve[1], curve[2], curve[3], curve[4],
+      JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier,
+      JoyUtilConstants.leftTriggerSpeedMultiplier, JoyUtilConstants.rightTriggerSpeedMultiplier);
+
+    double[][] axes = composed.get();
+    for (int i = 0; i < count; i++) {
+      axes[0][i] = profile.composeLeftStick(leftX[i], leftTrigger[i], rightTrigger[i]);
+      axes[1][i] = profile.composeLeftStick(leftY[i], leftTrigger[i], rightTrigger[i]);
+      axes[2][i] = profile.composeRightStick(rightX[i], leftTrigger[i], rightTrigger[i]);
+      axes[3][i] = profile.composeRightStick(rightY[i], leftTrigger[i], rightTrigger[i]);
+    }
+
+    double bestLeft = 0, bestLeftError = Double.POSITIVE_INFINITY;
+    double bestRight = 0, bestRightError = Double.POSITIVE_INFINITY;
+    for (double rateLimit : rateLimits) {
+      double leftError = error(axes[0], achievedLeftX, rateLimit) + error(axes[1], achievedLeftY, rateLimit);
+      if (leftError < bestLeftError) {
+        bestLeft = rateLimit;
+        bestLeftError = leftError;
+      }
+
+      double rightError = error(axes[2], achievedRightX, rateLimit) + error(axes[3], achievedRightY, rateLimit);
+      if (rightError < bestRightError) {
+        bestRight = rateLimit;
+        bestRightError = rightError;
+      }
+    }
+
+    return new Fit(profile, bestLeft, bestRight, bestLeftError + bestRightError);
+  }
+
+  /** <> rate limits an axis the same way {@link AxisPipeline} does and sums its squared error */
+  private double error(double[] axis, double[] achieved, double rateLimit) {
+    double output = 0;
+    double error = 0;
+
+    for (int i = 0; i < count; i++) {
+      if (rateLimit == Double.POSITIVE_INFINITY) {
+        output = axis[i];
+      } else if (Double.isNaN(elapsedTimes[i])) {
+        output = 0;
+      } else {
+        double maxChange = rateLimit * elapsedTimes[i];
+        output += Math.max(-maxChange, Math.min(axis[i] - output, maxChange));
+      }
+
+      double miss = output - achieved[i];
+      error += miss * miss;
+    }
+
+    return error;
+  }
+
+  private static void write(Path path, Fit fit, int samples, int sessions) throws IOException {
+    TuningProfile profile = fit.profile;
+    double rmsError = Math.sqrt(fit.error / (4.0 * samples));
+
+    try (Writer writer = Files.newBufferedWriter(path)) {
+      writer.write("# <> fitted by CurveFitter over " + sessions + " sessions (" + samples + " samples),\n");
+      writer.write("# rms error " + rmsError + ". rate limits aren't part of a profile,\n");
+      writer.write("# so copy these into JoyUtilConstants:\n");
+      writer.write("# kRateLimitLeft = " + fit.rateLimitLeft + "\n");
+      writer.write("# kRateLimitRight = " + fit.rateLimitRight + "\n\n");
+
+      writer.write("deadzone = " + profile.getDeadzone() + "\n\n");
+
+      writer.write("exponent1 = " + (int) profile.getExponent1() + "\n");
+      writer.write("exponent2 = " + (int) profile.getExponent2() + "\n");
+      writer.write("coefficient1 = " + profile.getCoefficient1() + "\n");
+      writer.write("coefficient2 = " + profile.getCoefficient2() + "\n\n");
+
+      writer.write("leftTriggerLeftStickMultiplier = " + profile.getLeftTriggerLeftStickMultiplier() + "\n");
+      writer.write("rightTriggerLeftStickMultiplier = " + profile.getRightTriggerLeftStickMultiplier() + "\n");
+      writer.write("leftTriggerRightStickMultiplier = " + profile.getLeftTriggerRightStickMultiplier() + "\n");
+      writer.write("rightTriggerRightStickMultiplier = " + profile.getRightTriggerRightStickMultiplier() + "\n");
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: CurveFitter <sessions directory> <output .properties file>");
+      System.exit(1);
+    }
+
+    List<Path> recordings = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(Path.of(args[0]), "*.joyr")) {
+      files.forEach(recordings::add);
+    }
+    recordings.sort(null);
+    if (recordings.isEmpty()) {
+      System.err.println("No .joyr recordings in " + args[0]);
+      System.exit(1);
+    }
+
+    CurveFitter fitter = new CurveFitter(recordings);
+    System.out.printf("Fitting %d curves x %d rate limits per stick over %d samples on %d threads%n",
+      fitter.curves.size(), fitter.rateLimits.length, fitter.count, ForkJoinPool.commonPool().getParallelism());
+
+    long start = System.nanoTime();
+    Fit fit = ForkJoinPool.commonPool().invoke(fitter.new FitTask(0, fitter.curves.size()));
+    System.out.printf("Done in %.1fs: %s, rate limits %s left, %s right%n", (System.nanoTime() - start) * 1e-9,
+      fit.profile, fit.rateLimitLeft, fit.rateLimitRight);
+
+    write(Path.of(args[1]), fit, fitter.count, recordings.size());
+  }
+}